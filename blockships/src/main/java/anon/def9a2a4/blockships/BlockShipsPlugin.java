@@ -4,6 +4,7 @@ import anon.def9a2a4.blockships.blockconfig.BlockConfigManager;
 import anon.def9a2a4.blockships.customships.ShipWheelData;
 import anon.def9a2a4.blockships.customships.ShipWheelManager;
 import anon.def9a2a4.blockships.ship.ShipInstance;
+import anon.def9a2a4.blockships.ship.ShipTickScheduler;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.World;
@@ -20,6 +21,8 @@ public class BlockShipsPlugin extends JavaPlugin {
     private DisplayShip displayShip;
     private ShipSteeringListener steeringListener;
     private ShipWheelManager shipWheelManager;
+    private ShipTickScheduler tickScheduler;
+    private ShipProfileCommand profileCommand;
 
     @Override
     public void onEnable() {
@@ -51,16 +54,28 @@ public class BlockShipsPlugin extends JavaPlugin {
         displayShip = new DisplayShip(this);
         displayShip.initialize();
         Bukkit.getPluginManager().registerEvents(displayShip, this);
+        Bukkit.getPluginManager().registerEvents(new ShipWakeListener(), this);
 
         // Initialize ShipWheelManager for custom block ships and load saved wheels
         shipWheelManager = new ShipWheelManager(this);
         shipWheelManager.loadAll();
 
+        // Start the shared tick loop that drives all registered ships
+        tickScheduler = new ShipTickScheduler(this);
+        tickScheduler.start();
+        profileCommand = new ShipProfileCommand(this);
+
         getLogger().info("BlockShips enabled.");
     }
 
     @Override
     public void onDisable() {
+        if (profileCommand != null) {
+            profileCommand.cancel();
+        }
+        if (tickScheduler != null) {
+            tickScheduler.stop();
+        }
         // Save ship wheels before shutdown
         if (shipWheelManager != null) {
             shipWheelManager.saveAll();
@@ -79,6 +94,10 @@ public class BlockShipsPlugin extends JavaPlugin {
         return shipWheelManager;
     }
 
+    public ShipTickScheduler getTickScheduler() {
+        return tickScheduler;
+    }
+
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (command.getName().equalsIgnoreCase("blockships")) {
@@ -90,6 +109,9 @@ public class BlockShipsPlugin extends JavaPlugin {
                 reloadConfig();
                 // Reload global physics config
                 ShipInstance.loadGlobalPhysicsConfig(this);
+                if (tickScheduler != null) {
+                    tickScheduler.loadConfig();
+                }
                 if (displayShip != null) {
                     displayShip.reload();
                 }
@@ -208,6 +230,16 @@ public class BlockShipsPlugin extends JavaPlugin {
                 return true;
             }
 
+            if (args.length > 0 && args[0].equalsIgnoreCase("profile")) {
+                if (!sender.hasPermission("blockships.admin")) {
+                    sender.sendMessage("You don't have permission to use this command.");
+                    return true;
+                }
+
+                profileCommand.handle(sender, java.util.Arrays.copyOfRange(args, 1, args.length));
+                return true;
+            }
+
             if (args.length > 0 && args[0].equalsIgnoreCase("killentities")) {
                 if (!sender.hasPermission("blockships.admin")) {
                     sender.sendMessage("You don't have permission to use this command.");
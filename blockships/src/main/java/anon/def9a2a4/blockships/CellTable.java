@@ -0,0 +1,161 @@
+package anon.def9a2a4.blockships;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressed hash table from packed X/Z cell coordinates to a non-negative int, shared by the
+ * plugin's grids: the ship and player position grids map a cell to the first entry of its chain, and
+ * the saved-ship chunk index maps a chunk to its slot in the value arrays.
+ *
+ * Keys pack X in the low and Z in the high 32 bits (the same layout as Paper's chunk keys). Position
+ * grids use {@link #cell} for 16-block cells aligned with chunks, so their cell keys are chunk keys too.
+ * Linear probing; removing an entry shifts later entries of its probe run back into the gap, so lookups
+ * never stop early and no tombstones are needed.
+ *
+ * Not thread-safe: grids that are read from several threads fill a table once and only read it afterwards.
+ */
+public final class CellTable {
+    public static final int ABSENT = -1;
+    private static final int CELL_SHIFT = 4;  // 16-block cells on X and Z, the same as chunks
+
+    private long[] keys;
+    private int[] values;  // ABSENT marks an empty slot
+    private int mask;
+    private int size;
+
+    public CellTable() {
+        this(8);
+    }
+
+    /**
+     * @param expected Number of entries the table should hold without resizing
+     */
+    public CellTable(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(values, ABSENT);
+    }
+
+    public static long key(int x, int z) {
+        return ((long) z << 32) | (x & 0xFFFFFFFFL);
+    }
+
+    public static int x(long key) {
+        return (int) key;
+    }
+
+    public static int z(long key) {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * Cell (and chunk) coordinate of a block coordinate.
+     */
+    public static int cell(double coordinate) {
+        return (int) Math.floor(coordinate) >> CELL_SHIFT;
+    }
+
+    /**
+     * Whether a query over the given cell range touches more cells than there are entries to look at;
+     * checking each entry directly is cheaper then.
+     */
+    public static boolean touchesMoreCellsThan(int minX, int minZ, int maxX, int maxZ, int entries) {
+        return (long) (maxX - minX + 1) * (maxZ - minZ + 1) > entries;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The value stored for the key, or {@link #ABSENT}.
+     */
+    public int get(long key) {
+        int slot = hash(key) & mask;
+        while (values[slot] != ABSENT) {
+            if (keys[slot] == key) return values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return ABSENT;
+    }
+
+    public int get(int x, int z) {
+        return get(key(x, z));
+    }
+
+    /**
+     * Stores a value for the key, replacing any previous one.
+     *
+     * @param value Non-negative value
+     */
+    public void put(long key, int value) {
+        if (value < 0) throw new IllegalArgumentException("Negative value " + value);
+        int slot = hash(key) & mask;
+        while (values[slot] != ABSENT && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] == ABSENT) {
+            size++;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (size * 2 > values.length) {
+            resize(values.length * 2);
+        }
+    }
+
+    /**
+     * Removes the key.
+     *
+     * @return The value it had, or {@link #ABSENT}
+     */
+    public int remove(long key) {
+        int slot = hash(key) & mask;
+        while (values[slot] != ABSENT) {
+            if (keys[slot] == key) {
+                int value = values[slot];
+                delete(slot);
+                return value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return ABSENT;
+    }
+
+    private void delete(int slot) {
+        int gap = slot;
+        for (int i = (slot + 1) & mask; values[i] != ABSENT; i = (i + 1) & mask) {
+            int home = hash(keys[i]) & mask;
+            // The entry may fill the gap only if the gap lies on its probe path (home .. i)
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        values[gap] = ABSENT;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        size = 0;
+        Arrays.fill(values, ABSENT);
+        for (int slot = 0; slot < oldValues.length; slot++) {
+            if (oldValues[slot] != ABSENT) {
+                put(oldKeys[slot], oldValues[slot]);
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
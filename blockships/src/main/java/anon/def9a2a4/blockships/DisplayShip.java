@@ -29,7 +29,6 @@ import org.bukkit.event.world.ChunkLoadEvent;
 import org.bukkit.event.world.ChunkUnloadEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.*;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.SkullMeta;
 import org.bukkit.persistence.PersistentDataContainer;
@@ -52,7 +51,7 @@ public class DisplayShip implements Listener {
     private ItemTextureManager textureManager;
     private ItemFactory itemFactory;
     private final List<NamespacedKey> registeredRecipes = new ArrayList<>();
-    private final Map<UUID, Long> lastShulkerInteraction = new HashMap<>();  // Cooldown for preventing double-entry
+    private final Map<UUID, Long> lastShulkerInteraction = new java.util.concurrent.ConcurrentHashMap<>();  // Cooldown for preventing double-entry
     private final Set<UUID> shipsBeingRecovered = Collections.synchronizedSet(new HashSet<>());  // Prevent concurrent recovery
 
     public DisplayShip(JavaPlugin plugin) {
@@ -196,11 +195,11 @@ public class DisplayShip implements Listener {
      * Ships in spawn chunks never trigger onChunkUnload, so they need periodic saving.
      */
     private void startPeriodicSaveTask() {
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                // Save all currently loaded ships and ensure they're in chunk index
-                for (ShipInstance ship : ShipRegistry.getAllShips()) {
+        ShipScheduling.runTimer(plugin, 20L * 60, 20L * 60, () -> {  // Every 60 seconds
+            // Save all currently loaded ships and ensure they're in chunk index
+            // (on Folia each ship is saved on the region that owns its vehicle)
+            for (ShipInstance ship : ShipRegistry.getAllShips()) {
+                ShipScheduling.run(plugin, ship.vehicle, () -> {
                     shipWorldData.saveShipMetadata(ship);
 
                     // Ensure ship is in chunk index (may have been missed or moved)
@@ -208,10 +207,10 @@ public class DisplayShip implements Listener {
                     int chunkX = loc.getBlockX() >> 4;
                     int chunkZ = loc.getBlockZ() >> 4;
                     shipWorldData.addToChunkIndex(loc.getWorld(), ship.id, chunkX, chunkZ);
-                }
-                shipWorldData.saveAllChunkIndices();
+                });
             }
-        }.runTaskTimer(plugin, 20L * 60, 20L * 60);  // Every 60 seconds
+            shipWorldData.saveAllChunkIndices();
+        });
     }
 
     public void loadShips() {
@@ -337,6 +336,8 @@ public class DisplayShip implements Listener {
     public void shutdown() {
         // Save all ships to per-world storage before shutdown
         shipWorldData.saveAll();
+        // Saves are written on an I/O thread; wait for them before the plugin goes away
+        shipWorldData.close();
         ShipRegistry.destroyAll();
     }
 
@@ -392,6 +393,9 @@ public class DisplayShip implements Listener {
                 continue;
             }
 
+            ShipEvents.ChunkRecoveryEvent recoveryEvent = new ShipEvents.ChunkRecoveryEvent();
+            recoveryEvent.begin();
+            ShipInstance ship = null;
             try {
                 // Load ship metadata from per-world YAML
                 ShipPersistence.ShipState state = shipWorldData.loadShipMetadata(event.getWorld(), shipId);
@@ -408,7 +412,7 @@ public class DisplayShip implements Listener {
                 }
 
                 // Create ShipInstance from state (without spawning entities)
-                ShipInstance ship = ShipInstance.fromState(plugin, state, model);
+                ship = ShipInstance.fromState(plugin, state, model);
                 if (ship == null) {
                     plugin.getLogger().warning("Failed to create ShipInstance for " + shipId);
                     continue;
@@ -422,9 +426,21 @@ public class DisplayShip implements Listener {
 
                 // Register recovered ship
                 ShipRegistry.register(ship);
+                recoveryEvent.recovered = true;
                 plugin.getLogger().info("Recovered ship " + shipId + " from chunk load at " + chunk.getX() + "," + chunk.getZ());
             } finally {
                 shipsBeingRecovered.remove(shipId);
+                recoveryEvent.end();
+                if (recoveryEvent.shouldCommit()) {
+                    if (ship != null) {
+                        recoveryEvent.setShip(ship);
+                    } else {
+                        recoveryEvent.setShipId(shipId);
+                    }
+                    recoveryEvent.chunkX = chunk.getX();
+                    recoveryEvent.chunkZ = chunk.getZ();
+                    recoveryEvent.commit();
+                }
             }
         }
     }
@@ -433,7 +449,9 @@ public class DisplayShip implements Listener {
      * Loads the appropriate ShipModel for a saved ship state.
      */
     private ShipModel loadModelForState(ShipPersistence.ShipState state) {
-        if ("custom".equals(state.shipType) && state.modelData != null) {
+        if ("custom".equals(state.shipType) && state.model != null) {
+            return state.model;  // From a save still queued in memory
+        } else if ("custom".equals(state.shipType) && state.modelData != null) {
             // Custom ship - deserialize model from stored data
             try {
                 return ShipModel.fromMap(state.modelData);
@@ -878,25 +896,21 @@ public class DisplayShip implements Listener {
             // Past cooldown - allow interaction (timestamp updated after successful action)
         }
 
-        // Parse shulker tags: displayship:{uuid}, storage:{blockIndex}, shipseat:{seatIndex}, shipwheel:{location}, interact:{blockIndex}
+        // Resolve the ship and seat through the entity index, then parse the role tags:
+        // storage:{blockIndex}, shipwheel:{location}, interact:{blockIndex}
         // Tag creation: ShipInstance constructor (collision boxes and seats)
-        UUID shipId = null;
-        int storageBlockIndex = -1;
-        int seatIndex = -1;
-        String wheelLocation = null;
-        int interactBlockIndex = -1;
-
-        Set<String> tags = shulker.getScoreboardTags();
-        shipId = ShipTags.extractShipId(tags);
-        storageBlockIndex = ShipTags.extractStorageIndex(tags);
-        seatIndex = ShipTags.extractSeatIndex(tags);
-        wheelLocation = ShipTags.extractWheelLocation(tags);
-        interactBlockIndex = ShipTags.extractInteractIndex(tags);
+        EntityShipIndex.Entry entry = EntityShipIndex.getRegistered(shulker);
+        if (entry == null) return;
 
-        if (shipId == null) return;
+        ShipInstance inst = entry.ship;
+        if (!inst.vehicle.isValid()) return;
+        UUID shipId = inst.id;
+        int seatIndex = entry.seatIndex;
 
-        ShipInstance inst = ShipRegistry.byId(shipId);
-        if (inst == null || !inst.vehicle.isValid()) return;
+        Set<String> tags = shulker.getScoreboardTags();
+        int storageBlockIndex = ShipTags.extractStorageIndex(tags);
+        String wheelLocation = ShipTags.extractWheelLocation(tags);
+        int interactBlockIndex = ShipTags.extractInteractIndex(tags);
 
         // Debug tool: if player holds echo shard, show collision info
         if (player.getInventory().getItemInMainHand().getType() == Material.ECHO_SHARD) {
@@ -1026,8 +1040,9 @@ public class DisplayShip implements Listener {
         Shulker availableSeatShulker = inst.getFirstAvailableSeatShulker();
         if (availableSeatShulker != null) {
             availableSeatShulker.addPassenger(player);
-            // Mark seat as occupied (extract seat index from shulker tags)
-            int idx = ShipTags.extractSeatIndex(availableSeatShulker.getScoreboardTags());
+            // Mark seat as occupied
+            EntityShipIndex.Entry seat = EntityShipIndex.get(availableSeatShulker);
+            int idx = seat != null ? seat.seatIndex : -1;
             if (idx >= 0) {
                 inst.occupySeat(idx);
             }
@@ -1087,50 +1102,41 @@ public class DisplayShip implements Listener {
         if (!(e.getExited() instanceof Player)) return;
         if (!(e.getVehicle() instanceof Shulker shulker)) return;
 
-        // Parse tags: displayship:{uuid} and shipseat:{index}
-        // Tag creation: ShipInstance constructor (lines 285-297)
-        Set<String> exitTags = shulker.getScoreboardTags();
-        UUID shipId = ShipTags.extractShipId(exitTags);
-        int seatIndex = ShipTags.extractSeatIndex(exitTags);
-
-        if (shipId != null && seatIndex >= 0) {
-            ShipInstance inst = ShipRegistry.byId(shipId);
-            if (inst != null) {
-                inst.freeSeat(seatIndex);
-                // Speed persists - don't reset currentSpeed
-
-                // Transfer ship velocity to exiting player
-                Player player = (Player) e.getExited();
-                float currentSpeed = inst.physics.currentSpeed;
-                float currentYVelocity = inst.physics.currentYVelocity;
-
-                // Calculate ship velocity from currentSpeed and yaw (needed if ship is moving)
-                float yawRad = (float) Math.toRadians(-inst.vehicle.getYaw());
-                double forwardX = Math.sin(yawRad) * currentSpeed;
-                double forwardZ = Math.cos(yawRad) * currentSpeed;
-                boolean shipIsMoving = Math.abs(currentSpeed) > 0.01 || Math.abs(currentYVelocity) > 0.01;
-
-                // Delay by 2 ticks to ensure Minecraft's dismount logic completes
-                new BukkitRunnable() {
-                    @Override
-                    public void run() {
-                        // Teleport player up 0.1 blocks to prevent clipping into shulker
-                        Location loc = player.getLocation();
-                        loc.setY(loc.getY() + 0.1);
-                        player.teleport(loc);
-
-                        // Transfer ship velocity if ship is moving (horizontally or vertically)
-                        if (shipIsMoving) {
-                            player.setVelocity(new org.bukkit.util.Vector(
-                                forwardX,
-                                currentYVelocity,
-                                forwardZ
-                            ));
-                        }
-                    }
-                }.runTaskLater(plugin, 2L);
+        // Resolve the ship and seat through the entity index
+        EntityShipIndex.Entry entry = EntityShipIndex.getRegistered(shulker);
+        if (entry == null || entry.seatIndex < 0) return;
+
+        ShipInstance inst = entry.ship;
+        inst.freeSeat(entry.seatIndex);
+        // Speed persists - don't reset currentSpeed
+
+        // Transfer ship velocity to exiting player
+        Player player = (Player) e.getExited();
+        float currentSpeed = inst.physics.currentSpeed;
+        float currentYVelocity = inst.physics.currentYVelocity;
+
+        // Calculate ship velocity from currentSpeed and yaw (needed if ship is moving)
+        float yawRad = (float) Math.toRadians(-inst.vehicle.getYaw());
+        double forwardX = Math.sin(yawRad) * currentSpeed;
+        double forwardZ = Math.cos(yawRad) * currentSpeed;
+        boolean shipIsMoving = Math.abs(currentSpeed) > 0.01 || Math.abs(currentYVelocity) > 0.01;
+
+        // Delay by 2 ticks to ensure Minecraft's dismount logic completes
+        ShipScheduling.runLater(plugin, player, 2L, () -> {
+            // Teleport player up 0.1 blocks to prevent clipping into shulker
+            Location loc = player.getLocation();
+            loc.setY(loc.getY() + 0.1);
+            ShipScheduling.teleport(player, loc);
+
+            // Transfer ship velocity if ship is moving (horizontally or vertically)
+            if (shipIsMoving) {
+                player.setVelocity(new org.bukkit.util.Vector(
+                    forwardX,
+                    currentYVelocity,
+                    forwardZ
+                ));
             }
-        }
+        });
     }
 
     /**
@@ -1142,14 +1148,12 @@ public class DisplayShip implements Listener {
         if (!(e.getEntity() instanceof Shulker shulker)) return;
 
         // Check if this shulker belongs to a ship
-        UUID shipId = ShipTags.extractShipId(shulker.getScoreboardTags());
-        if (shipId == null) return;
-
-        ShipInstance inst = ShipRegistry.byId(shipId);
+        ShipInstance inst = EntityShipIndex.shipOf(shulker);
         if (inst == null || !inst.vehicle.isValid()) return;
 
         // Cancel the damage to the shulker (keeps shulker effectively invulnerable)
         e.setCancelled(true);
+        inst.wake();
 
         // Get the damage amount and apply directly to ship health
         double damage = e.getDamage();
@@ -1185,12 +1189,10 @@ public class DisplayShip implements Listener {
     public void onProjectileHitShip(ProjectileHitEvent e) {
         if (!(e.getHitEntity() instanceof Shulker shulker)) return;
 
-        UUID shipId = ShipTags.extractShipId(shulker.getScoreboardTags());
-        if (shipId == null) return;
-
-        ShipInstance inst = ShipRegistry.byId(shipId);
+        ShipInstance inst = EntityShipIndex.shipOf(shulker);
         if (inst == null || !inst.vehicle.isValid()) return;
 
+        inst.wake();
         Projectile projectile = e.getEntity();
 
         // Skip wind charges - they already work via EntityDamageEvent
@@ -1534,7 +1536,7 @@ public class DisplayShip implements Listener {
                 manager.detectShip(player, wheelData);
                 // Refresh menu to update ship info lore
                 player.closeInventory();
-                Bukkit.getScheduler().runTaskLater(plugin, () -> ShipWheelMenu.openMenu(player, wheelData), 1L);
+                ShipScheduling.runLater(plugin, player, 1L, () -> ShipWheelMenu.openMenu(player, wheelData));
                 break;
             case ASSEMBLE:
                 stateChanged = manager.assembleShip(player, wheelData);
@@ -1548,7 +1550,7 @@ public class DisplayShip implements Listener {
                 if (!stateChanged && wheelData.canForceDisassemble()) {
                     wheelData.setPendingMenuReopen(true);
                     player.closeInventory();
-                    Bukkit.getScheduler().runTaskLater(plugin, () -> ShipWheelMenu.openMenu(player, wheelData), 1L);
+                    ShipScheduling.runLater(plugin, player, 1L, () -> ShipWheelMenu.openMenu(player, wheelData));
                     return;
                 }
                 break;
@@ -1575,12 +1577,7 @@ public class DisplayShip implements Listener {
         if (stateChanged) {
             player.closeInventory();
             // Reopen after a tick to show updated state
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    ShipWheelMenu.openMenu(player, wheelData);
-                }
-            }.runTaskLater(plugin, 1L);
+            ShipScheduling.runLater(plugin, player, 1L, () -> ShipWheelMenu.openMenu(player, wheelData));
         }
     }
 
@@ -0,0 +1,95 @@
+package anon.def9a2a4.blockships;
+
+import anon.def9a2a4.blockships.ship.ShipInstance;
+import org.bukkit.entity.Entity;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reverse lookup from a ship's entities to the ship, so event and packet handlers can resolve a
+ * clicked, damaged or ridden entity with one hash lookup instead of parsing its scoreboard tags.
+ *
+ * Entries are added when a ship's colliders are spawned or recovered and removed when the ship drops
+ * them (chunk unload, respawn, destroy). The scoreboard tags stay the persistent source of truth;
+ * this index only mirrors them for loaded ships. Thread-safe, like {@link ShipRegistry}.
+ */
+public final class EntityShipIndex {
+    private static final Map<UUID, Entry> byEntity = new ConcurrentHashMap<>();
+
+    private EntityShipIndex() {} // Prevent instantiation
+
+    /**
+     * What an indexed entity is to its ship.
+     */
+    public enum Role {
+        CARRIER,   // Invisible entity a collider shulker rides on
+        COLLIDER   // Collision shulker (also the seat, storage, lead point, etc. of its block)
+    }
+
+    /**
+     * An indexed entity's ship, role, block index in the ship's model, and seat index (-1 if not a seat).
+     */
+    public static final class Entry {
+        public final ShipInstance ship;
+        public final Role role;
+        public final int blockIndex;
+        public final int seatIndex;
+
+        Entry(ShipInstance ship, Role role, int blockIndex, int seatIndex) {
+            this.ship = ship;
+            this.role = role;
+            this.blockIndex = blockIndex;
+            this.seatIndex = seatIndex;
+        }
+    }
+
+    public static void put(Entity entity, ShipInstance ship, Role role, int blockIndex, int seatIndex) {
+        byEntity.put(entity.getUniqueId(), new Entry(ship, role, blockIndex, seatIndex));
+    }
+
+    /**
+     * Removes the entity's entry if it still belongs to the given ship
+     * (a newer instance of the same ship may have re-indexed it already).
+     */
+    public static void remove(Entity entity, ShipInstance ship) {
+        UUID id = entity.getUniqueId();
+        Entry entry = byEntity.get(id);
+        if (entry != null && entry.ship == ship) {
+            byEntity.remove(id, entry);
+        }
+    }
+
+    /**
+     * The entry for an entity, or null if it isn't part of a loaded ship.
+     * The ship may have been unregistered since; use {@link #shipOf} when only registered ships matter.
+     */
+    public static Entry get(Entity entity) {
+        return entity != null ? byEntity.get(entity.getUniqueId()) : null;
+    }
+
+    /**
+     * The registered ship an entity belongs to, or null.
+     */
+    public static ShipInstance shipOf(Entity entity) {
+        Entry entry = get(entity);
+        return entry != null && isRegistered(entry.ship) ? entry.ship : null;
+    }
+
+    /**
+     * The entry for an entity if its ship is registered, or null.
+     */
+    public static Entry getRegistered(Entity entity) {
+        Entry entry = get(entity);
+        return entry != null && isRegistered(entry.ship) ? entry : null;
+    }
+
+    private static boolean isRegistered(ShipInstance ship) {
+        return ShipRegistry.byId(ship.id) == ship;
+    }
+
+    public static void clear() {
+        byEntity.clear();
+    }
+}
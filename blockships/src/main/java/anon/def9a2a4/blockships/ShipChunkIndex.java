@@ -0,0 +1,202 @@
+package anon.def9a2a4.blockships;
+
+import java.util.*;
+
+/**
+ * One world's chunk index for {@link ShipWorldData}: which saved ships are in which chunk.
+ *
+ * Chunks are keyed by packed coordinates ({@link CellTable#key}) in a cell table pointing into dense
+ * arrays of exact-size UUID arrays, and each ship maps back to the chunks it is listed in, so moving or
+ * removing a ship touches only its own entries. Stored arrays are never modified (changes replace them), so lookups can hand
+ * them out without copying. Synchronized, since ships on different region threads (Folia) update it.
+ */
+final class ShipChunkIndex {
+    private static final UUID[] NO_SHIPS = new UUID[0];
+    private static final long[] NO_CHUNKS = new long[0];
+
+    final String worldName;
+
+    // Chunk key -> slot in the dense arrays below
+    private final CellTable slots = new CellTable();
+    private long[] chunkKeys = new long[16];
+    private UUID[][] shipsByChunk = new UUID[16][];
+    private int chunkCount;
+
+    // Ship -> packed keys of the chunks it is listed in
+    private final Map<UUID, long[]> chunksOf = new HashMap<>();
+    private boolean dirty;  // Changed since the last save
+
+    ShipChunkIndex(String worldName) {
+        this.worldName = worldName;
+    }
+
+    /**
+     * Ships listed in the chunk, as a read-only view.
+     */
+    synchronized List<UUID> get(long key) {
+        int slot = slots.get(key);
+        if (slot < 0) return Collections.emptyList();
+        return Collections.unmodifiableList(Arrays.asList(shipsByChunk[slot]));
+    }
+
+    /**
+     * Lists the ship in the chunk (in addition to any chunks it is already listed in).
+     */
+    synchronized void add(UUID ship, long key) {
+        long[] chunks = chunksOf.getOrDefault(ship, NO_CHUNKS);
+        if (indexOf(chunks, key) >= 0) return;
+        long[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+        grown[chunks.length] = key;
+        chunksOf.put(ship, grown);
+
+        int slot = slots.get(key);
+        UUID[] ships = slot >= 0 ? shipsByChunk[slot] : NO_SHIPS;
+        UUID[] added = Arrays.copyOf(ships, ships.length + 1);
+        added[ships.length] = ship;
+        put(key, added);
+        dirty = true;
+    }
+
+    /**
+     * Removes the ship from one chunk.
+     */
+    synchronized void remove(UUID ship, long key) {
+        long[] chunks = chunksOf.get(ship);
+        if (chunks == null) return;
+        int i = indexOf(chunks, key);
+        if (i < 0) return;
+        if (chunks.length == 1) {
+            chunksOf.remove(ship);
+        } else {
+            long[] shrunk = new long[chunks.length - 1];
+            System.arraycopy(chunks, 0, shrunk, 0, i);
+            System.arraycopy(chunks, i + 1, shrunk, i, shrunk.length - i);
+            chunksOf.put(ship, shrunk);
+        }
+        removeFromChunk(ship, key);
+        dirty = true;
+    }
+
+    /**
+     * Moves the ship's listing from one chunk to another.
+     */
+    synchronized void move(UUID ship, long from, long to) {
+        remove(ship, from);
+        add(ship, to);
+    }
+
+    /**
+     * Removes the ship from every chunk it is listed in.
+     */
+    synchronized void removeShip(UUID ship) {
+        long[] chunks = chunksOf.remove(ship);
+        if (chunks == null) return;
+        for (long key : chunks) {
+            removeFromChunk(ship, key);
+        }
+        dirty = true;
+    }
+
+    synchronized Set<UUID> ships() {
+        return new HashSet<>(chunksOf.keySet());
+    }
+
+    /**
+     * Number of (chunk, ship) entries.
+     */
+    synchronized int entryCount() {
+        int count = 0;
+        for (long[] chunks : chunksOf.values()) {
+            count += chunks.length;
+        }
+        return count;
+    }
+
+    synchronized boolean isDirty() {
+        return dirty;
+    }
+
+    synchronized void markClean() {
+        dirty = false;
+    }
+
+    synchronized void markDirty() {
+        dirty = true;
+    }
+
+    /**
+     * Copies the index in its on-disk form ("x,z" -> ship UUID strings) and marks it clean.
+     */
+    synchronized Map<String, List<String>> snapshotForSave() {
+        Map<String, List<String>> snapshot = new LinkedHashMap<>();
+        for (int slot = 0; slot < chunkCount; slot++) {
+            UUID[] ships = shipsByChunk[slot];
+            List<String> ids = new ArrayList<>(ships.length);
+            for (UUID ship : ships) {
+                ids.add(ship.toString());
+            }
+            snapshot.put(CellTable.x(chunkKeys[slot]) + "," + CellTable.z(chunkKeys[slot]), ids);
+        }
+        dirty = false;
+        return snapshot;
+    }
+
+    private void removeFromChunk(UUID ship, long key) {
+        int slot = slots.get(key);
+        if (slot < 0) return;
+        UUID[] ships = shipsByChunk[slot];
+        int i = indexOf(ships, ship);
+        if (i < 0) return;
+        if (ships.length == 1) {
+            delete(key);
+            return;
+        }
+        UUID[] shrunk = new UUID[ships.length - 1];
+        System.arraycopy(ships, 0, shrunk, 0, i);
+        System.arraycopy(ships, i + 1, shrunk, i, shrunk.length - i);
+        shipsByChunk[slot] = shrunk;
+    }
+
+    private void put(long key, UUID[] ships) {
+        int slot = slots.get(key);
+        if (slot < 0) {
+            if (chunkCount == chunkKeys.length) {
+                chunkKeys = Arrays.copyOf(chunkKeys, chunkCount * 2);
+                shipsByChunk = Arrays.copyOf(shipsByChunk, chunkCount * 2);
+            }
+            slot = chunkCount++;
+            chunkKeys[slot] = key;
+            slots.put(key, slot);
+        }
+        shipsByChunk[slot] = ships;
+    }
+
+    /**
+     * Drops a chunk, moving the last chunk into its slot so the arrays stay dense.
+     */
+    private void delete(long key) {
+        int slot = slots.remove(key);
+        if (slot < 0) return;
+        int last = --chunkCount;
+        if (slot != last) {
+            chunkKeys[slot] = chunkKeys[last];
+            shipsByChunk[slot] = shipsByChunk[last];
+            slots.put(chunkKeys[slot], slot);
+        }
+        shipsByChunk[last] = null;
+    }
+
+    private static int indexOf(long[] keys, long key) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == key) return i;
+        }
+        return -1;
+    }
+
+    private static int indexOf(UUID[] ships, UUID ship) {
+        for (int i = 0; i < ships.length; i++) {
+            if (ships[i].equals(ship)) return i;
+        }
+        return -1;
+    }
+}
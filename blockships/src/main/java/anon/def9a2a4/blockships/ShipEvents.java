@@ -0,0 +1,157 @@
+package anon.def9a2a4.blockships;
+
+import anon.def9a2a4.blockships.ship.ShipInstance;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import java.util.UUID;
+
+/**
+ * Java Flight Recorder events emitted by BlockShips.
+ *
+ * Every event carries the ship UUID, block count and entity count so MSPT spikes can be
+ * matched to specific ships in JDK Mission Control. Events are only allocated and committed
+ * while a recording has them enabled.
+ */
+public final class ShipEvents {
+
+    private ShipEvents() {}
+
+    private static final EventType TICK_TYPE = EventType.getEventType(ShipTickEvent.class);
+
+    /**
+     * Returns true if a recording wants ship tick events. Cheap enough to call every update.
+     */
+    public static boolean isTickEnabled() {
+        return TICK_TYPE.isEnabled();
+    }
+
+    /**
+     * Common fields for all ship events.
+     */
+    @Category({"BlockShips"})
+    public abstract static class ShipEvent extends Event {
+        @Label("Ship ID")
+        protected String shipId;
+
+        @Label("Ship Type")
+        protected String shipType;
+
+        @Label("Block Count")
+        protected int blockCount;
+
+        @Label("Entity Count")
+        protected int entityCount;
+
+        public void setShip(ShipInstance ship) {
+            this.shipId = ship.id.toString();
+            this.shipType = ship.shipType;
+            this.blockCount = ship.model.parts.size();
+            this.entityCount = ship.getEntityCount();
+        }
+
+        /**
+         * Sets the ship fields from values copied earlier, for events recorded off the ship's thread.
+         */
+        public void setShip(UUID id, String shipType, int blockCount, int entityCount) {
+            this.shipId = id.toString();
+            this.shipType = shipType;
+            this.blockCount = blockCount;
+            this.entityCount = entityCount;
+        }
+
+        public void setShipId(UUID id) {
+            this.shipId = id.toString();
+        }
+
+        public void setBlockCount(int blockCount) {
+            this.blockCount = blockCount;
+        }
+    }
+
+    @Name("blockships.ShipTick")
+    @Label("Ship Tick")
+    @Description("One ship update, with the time spent in each phase")
+    public static final class ShipTickEvent extends ShipEvent {
+        @Label("Elapsed Ticks")
+        @Description("Server ticks integrated by this update (more than 1 for ships on a reduced tick rate)")
+        public int elapsedTicks;
+
+        @Label("Steering")
+        @Timespan(Timespan.NANOSECONDS)
+        public long steering;
+
+        @Label("Collision Detect")
+        @Timespan(Timespan.NANOSECONDS)
+        public long collisionDetect;
+
+        @Label("Physics")
+        @Timespan(Timespan.NANOSECONDS)
+        public long physics;
+
+        @Label("Collision Response")
+        @Timespan(Timespan.NANOSECONDS)
+        public long collisionResponse;
+
+        @Label("Collider Sync")
+        @Timespan(Timespan.NANOSECONDS)
+        public long colliderSync;
+
+        @Label("Display Sync")
+        @Timespan(Timespan.NANOSECONDS)
+        public long displaySync;
+    }
+
+    @Name("blockships.StructureScan")
+    @Label("Structure Scan")
+    @Description("Flood fill of a block structure around a ship wheel")
+    public static final class StructureScanEvent extends ShipEvent {
+        @Label("Too Large")
+        public boolean tooLarge;
+    }
+
+    @Name("blockships.Assembly")
+    @Label("Ship Assembly")
+    @Description("Custom ship assembled from blocks, including scan, entity spawn and block removal")
+    public static final class AssemblyEvent extends ShipEvent {
+    }
+
+    @Name("blockships.Disassembly")
+    @Label("Ship Disassembly")
+    @Description("Custom ship placed back as blocks and its entities removed")
+    public static final class DisassemblyEvent extends ShipEvent {
+        @Label("Forced")
+        public boolean forced;
+    }
+
+    @Name("blockships.EntitySpawn")
+    @Label("Ship Entity Spawn")
+    @Description("Spawning of a new ship's vehicle, displays and colliders")
+    public static final class EntitySpawnEvent extends ShipEvent {
+    }
+
+    @Name("blockships.ChunkRecovery")
+    @Label("Ship Chunk Recovery")
+    @Description("Reattaching a saved ship to its entities when its chunk loads")
+    public static final class ChunkRecoveryEvent extends ShipEvent {
+        @Label("Chunk X")
+        public int chunkX;
+
+        @Label("Chunk Z")
+        public int chunkZ;
+
+        @Label("Recovered")
+        public boolean recovered;
+    }
+
+    @Name("blockships.MetadataSave")
+    @Label("Ship Metadata Save")
+    @Description("Serializing and writing a ship's per-world YAML file, on the I/O thread")
+    public static final class MetadataSaveEvent extends ShipEvent {
+    }
+}
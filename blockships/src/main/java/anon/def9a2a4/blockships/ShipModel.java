@@ -60,6 +60,60 @@ public final class ShipModel {
         this.assemblyYaw = assemblyYaw;
     }
 
+    // Lazily built collider offset tables, one per collision translation (see colliderOffsets)
+    private volatile ColliderOffsets[] colliderOffsets = new ColliderOffsets[0];
+
+    /**
+     * Builds the ship rotation for a vehicle orientation: the vehicle's yaw and pitch mapped
+     * through rotationTransform, plus the model's initial rotation.
+     *
+     * @param angles Scratch vector, overwritten
+     * @return dest, for chaining
+     */
+    public Matrix4f rotationFor(float vehicleYaw, float vehiclePitch, Matrix4f dest, Vector3f angles) {
+        angles.set(
+            (float) java.lang.Math.toRadians(-vehicleYaw),
+            (float) java.lang.Math.toRadians(-vehiclePitch),
+            0f
+        );
+        rotationTransform.transform(angles);
+        angles.x += (float) java.lang.Math.toRadians(initialRotation.x);
+        angles.y += (float) java.lang.Math.toRadians(initialRotation.y);
+        angles.z += (float) java.lang.Math.toRadians(initialRotation.z);
+
+        return dest.rotationY(angles.x)
+            .rotateX(angles.y)
+            .rotateZ(angles.z);
+    }
+
+    /**
+     * Returns the collider offset table for the given collision translation (model collision offset
+     * plus any per-type offset), building it on first use. Ships sharing this model and translation share
+     * the table; ship types with different translations each keep their own.
+     *
+     * @param maxRowFloats Cap on the floats the table keeps in cached rows; beyond it rows are computed exactly
+     */
+    public ColliderOffsets colliderOffsets(Vector3f collisionTranslation, int yawSteps, int maxRowFloats) {
+        for (ColliderOffsets table : colliderOffsets) {
+            if (table.matches(collisionTranslation, yawSteps, maxRowFloats)) return table;
+        }
+        synchronized (this) {
+            ColliderOffsets[] tables = colliderOffsets;
+            for (ColliderOffsets table : tables) {
+                if (table.matches(collisionTranslation, yawSteps, maxRowFloats)) return table;
+            }
+            // Drop tables built for other settings (config reload); keep other translations
+            List<ColliderOffsets> kept = new ArrayList<>(tables.length + 1);
+            for (ColliderOffsets table : tables) {
+                if (table.yawSteps == yawSteps && table.maxRowFloats == maxRowFloats) kept.add(table);
+            }
+            ColliderOffsets table = new ColliderOffsets(this, collisionTranslation, yawSteps, maxRowFloats);
+            kept.add(table);
+            colliderOffsets = kept.toArray(new ColliderOffsets[0]);
+            return table;
+        }
+    }
+
     /**
      * Calculates the ship's density (weight / block count).
      */
@@ -392,6 +446,311 @@ public final class ShipModel {
         };
     }
 
+    /**
+     * Vehicle-relative collider offsets, stored structure-of-arrays.
+     *
+     * A collider's offset from the vehicle is R * (collisionTranslation + part translation + per-block offset),
+     * where R depends only on the vehicle's yaw and pitch. The local vectors are computed once; rotated rows
+     * are built lazily for evenly spaced yaw steps (pitch 0, the only pitch ships use) and then shared by every
+     * ship of this model, and a level ship's offsets are interpolated between the two steps around its yaw.
+     * Each row holds all x values, then all y values, then all z values.
+     */
+    public static final class ColliderOffsets {
+        private final ShipModel model;
+        private final Vector3f collisionTranslation;
+        private final int[] slotByBlock;     // Part index -> slot, or -1 if the part has no collider
+        private final float[] localX, localY, localZ;
+        private final int yawSteps;          // Rows per full turn (0 = always rotate exactly)
+        private final int maxRowFloats;      // Cap on floats held in cached rows
+        private final java.util.concurrent.atomic.AtomicReferenceArray<float[]> rows;
+        private final java.util.concurrent.atomic.AtomicInteger rowFloats = new java.util.concurrent.atomic.AtomicInteger();
+        public final int count;
+        public final ColliderBvh bvh;        // Collider bounds hierarchy in ship-local (unrotated) space
+
+        ColliderOffsets(ShipModel model, Vector3f collisionTranslation, int yawSteps, int maxRowFloats) {
+            this.model = model;
+            this.collisionTranslation = new Vector3f(collisionTranslation);
+            this.yawSteps = yawSteps;
+            this.maxRowFloats = maxRowFloats;
+            this.slotByBlock = new int[model.parts.size()];
+
+            int n = 0;
+            for (int i = 0; i < model.parts.size(); i++) {
+                slotByBlock[i] = model.parts.get(i).collision.enable ? n++ : -1;
+            }
+            this.count = n;
+            this.localX = new float[n];
+            this.localY = new float[n];
+            this.localZ = new float[n];
+
+            Vector3f t = new Vector3f();
+            for (int i = 0; i < model.parts.size(); i++) {
+                int slot = slotByBlock[i];
+                if (slot < 0) continue;
+                ModelPart part = model.parts.get(i);
+                part.local.getTranslation(t).add(collisionTranslation).add(part.collision.offset);
+                localX[slot] = t.x;
+                localY[slot] = t.y;
+                localZ[slot] = t.z;
+            }
+            float[] sizes = new float[n];
+            for (int i = 0; i < model.parts.size(); i++) {
+                if (slotByBlock[i] >= 0) sizes[slotByBlock[i]] = model.parts.get(i).collision.size;
+            }
+            this.bvh = new ColliderBvh(localX, localY, localZ, sizes, yawSteps);
+            this.rows = new java.util.concurrent.atomic.AtomicReferenceArray<>(java.lang.Math.max(yawSteps, 0));
+        }
+
+        boolean matches(Vector3f collisionTranslation, int yawSteps, int maxRowFloats) {
+            return this.yawSteps == yawSteps && this.maxRowFloats == maxRowFloats
+                && this.collisionTranslation.equals(collisionTranslation);
+        }
+
+        /**
+         * Slot of a part's collider in the offset rows, or -1 if the part has no collider.
+         */
+        public int slotOf(int blockIndex) {
+            return blockIndex >= 0 && blockIndex < slotByBlock.length ? slotByBlock[blockIndex] : -1;
+        }
+
+        /**
+         * Returns the offset row for a vehicle orientation. Level ships get the two shared rows around
+         * their yaw interpolated into scratch (or the shared row itself when the yaw is exactly on a step);
+         * pitched ships, a table with no steps, and steps not cached once the table is at its float cap
+         * get exact offsets written into scratch.
+         *
+         * Interpolating along the chord between two steps puts a collider at most r * (1 - cos(PI / yawSteps))
+         * blocks from its exact position, r being its distance from the vehicle (about 0.016 blocks at
+         * 30 blocks out with 96 steps), where rounding to the nearest step would be off by up to a
+         * half-step arc (about 1 block).
+         *
+         * @param scratch Per-caller buffer of at least 3 * count floats, used for interpolated and exact rows
+         */
+        public float[] row(float yaw, float pitch, float[] scratch, Matrix4f scratchRotation, Vector3f scratchAngles) {
+            if (yawSteps <= 0 || pitch != 0.0f) {
+                fill(scratch, model.rotationFor(yaw, pitch, scratchRotation, scratchAngles));
+                return scratch;
+            }
+            float position = yaw * yawSteps / 360.0f;
+            float lower = (float) java.lang.Math.floor(position);
+            float weight = position - lower;
+            int step = java.lang.Math.floorMod((int) lower, yawSteps);
+            float[] from = cachedRow(step);
+            if (from != null && weight == 0.0f) return from;
+            float[] to = from != null ? cachedRow((step + 1) % yawSteps) : null;
+            if (to == null) {
+                fill(scratch, model.rotationFor(yaw, pitch, scratchRotation, scratchAngles));
+                return scratch;
+            }
+            for (int i = 0, size = 3 * count; i < size; i++) {
+                scratch[i] = from[i] + (to[i] - from[i]) * weight;
+            }
+            return scratch;
+        }
+
+        /**
+         * The shared row for a yaw step, built on first use, or null if the table is at its float cap.
+         */
+        private float[] cachedRow(int step) {
+            float[] row = rows.get(step);
+            if (row != null) return row;
+            if (!reserveRow()) return null;
+            row = new float[3 * count];
+            fill(row, model.rotationFor(step * 360.0f / yawSteps, 0.0f, new Matrix4f(), new Vector3f()));
+            if (!rows.compareAndSet(step, null, row)) {
+                rowFloats.addAndGet(-3 * count);  // Another thread cached the same row first
+                return rows.get(step);
+            }
+            return row;
+        }
+
+        /**
+         * Reserves room for one more cached row under the float cap.
+         */
+        private boolean reserveRow() {
+            int size = 3 * count;
+            while (true) {
+                int used = rowFloats.get();
+                if ((long) used + size > maxRowFloats) return false;
+                if (rowFloats.compareAndSet(used, used + size)) return true;
+            }
+        }
+
+        private void fill(float[] out, Matrix4f r) {
+            // Only the 3x3 rotation part is used; R has no translation
+            float m00 = r.m00(), m01 = r.m01(), m02 = r.m02();
+            float m10 = r.m10(), m11 = r.m11(), m12 = r.m12();
+            float m20 = r.m20(), m21 = r.m21(), m22 = r.m22();
+            for (int i = 0; i < count; i++) {
+                float x = localX[i], y = localY[i], z = localZ[i];
+                out[i] = m00 * x + m10 * y + m20 * z;
+                out[count + i] = m01 * x + m11 * y + m21 * z;
+                out[2 * count + i] = m02 * x + m12 * y + m22 * z;
+            }
+        }
+    }
+
+    /**
+     * Bounding volume hierarchy over a model's colliders, in ship-local (unrotated) space.
+     *
+     * Leaves hold up to {@value #LEAF_SIZE} collider slots; inner nodes bound their two children.
+     * Collider boxes are padded by {@value #SLACK} blocks for the shulker's ride height above its carrier,
+     * plus how far an offset interpolated between the table's yaw steps can sit from the exact one, so the
+     * hierarchy stays conservative for table offsets. Built once per offset table and shared (read-only) by
+     * every ship of the model.
+     */
+    public static final class ColliderBvh {
+        private static final int LEAF_SIZE = 4;
+        private static final float SLACK = 1.0f;
+
+        // Node bounds and layout (node 0 is the root)
+        private final float[] minX, minY, minZ, maxX, maxY, maxZ;
+        private final int[] left;            // First child (second is left + 1), or -1 for a leaf
+        private final int[] start, end;      // Leaf range in order[]
+        private final int[] order;           // Collider slots, grouped by leaf
+        private final float[][] slotBox;     // Padded collider boxes by slot: min x, y, z, max x, y, z
+        private int nodes;
+
+        /**
+         * @param yawSteps Rows per full turn of the owning table (0 = exact offsets, no interpolation slack)
+         */
+        ColliderBvh(float[] x, float[] y, float[] z, float[] size, int yawSteps) {
+            int n = x.length;
+            int capacity = java.lang.Math.max(1, 2 * n);
+            minX = new float[capacity];
+            minY = new float[capacity];
+            minZ = new float[capacity];
+            maxX = new float[capacity];
+            maxY = new float[capacity];
+            maxZ = new float[capacity];
+            left = new int[capacity];
+            start = new int[capacity];
+            end = new int[capacity];
+            order = new int[n];
+
+            // Interpolating between two steps leaves a collider at most the chord's sagitta, r * (1 - cos(half step)),
+            // from its exact position
+            double drift = yawSteps > 0 ? 1.0 - java.lang.Math.cos(java.lang.Math.PI / yawSteps) : 0.0;
+
+            // Padded collider boxes: shulkers are centered horizontally on the carrier and stand on it
+            float[][] box = new float[6][n];
+            for (int i = 0; i < n; i++) {
+                float half = size[i] * 0.5f;
+                float pad = SLACK + (float) (drift * java.lang.Math.sqrt(x[i] * x[i] + y[i] * y[i] + z[i] * z[i]));
+                box[0][i] = x[i] - half - pad;
+                box[1][i] = y[i] - pad;
+                box[2][i] = z[i] - half - pad;
+                box[3][i] = x[i] + half + pad;
+                box[4][i] = y[i] + size[i] + pad;
+                box[5][i] = z[i] + half + pad;
+                order[i] = i;
+            }
+            slotBox = box;
+            nodes = 1;
+            build(0, 0, n, box);
+        }
+
+        private void build(int node, int from, int to, float[][] box) {
+            float bMinX = Float.POSITIVE_INFINITY, bMinY = Float.POSITIVE_INFINITY, bMinZ = Float.POSITIVE_INFINITY;
+            float bMaxX = Float.NEGATIVE_INFINITY, bMaxY = Float.NEGATIVE_INFINITY, bMaxZ = Float.NEGATIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                int slot = order[i];
+                bMinX = java.lang.Math.min(bMinX, box[0][slot]);
+                bMinY = java.lang.Math.min(bMinY, box[1][slot]);
+                bMinZ = java.lang.Math.min(bMinZ, box[2][slot]);
+                bMaxX = java.lang.Math.max(bMaxX, box[3][slot]);
+                bMaxY = java.lang.Math.max(bMaxY, box[4][slot]);
+                bMaxZ = java.lang.Math.max(bMaxZ, box[5][slot]);
+            }
+            minX[node] = bMinX;
+            minY[node] = bMinY;
+            minZ[node] = bMinZ;
+            maxX[node] = bMaxX;
+            maxY[node] = bMaxY;
+            maxZ[node] = bMaxZ;
+            start[node] = from;
+            end[node] = to;
+
+            if (to - from <= LEAF_SIZE) {
+                left[node] = -1;
+                return;
+            }
+
+            // Split at the median box center along the node's longest axis
+            float ex = bMaxX - bMinX, ey = bMaxY - bMinY, ez = bMaxZ - bMinZ;
+            int axis = ex >= ey && ex >= ez ? 0 : (ey >= ez ? 1 : 2);
+            float[] lo = box[axis], hi = box[axis + 3];
+            Integer[] sorted = new Integer[to - from];
+            for (int i = from; i < to; i++) sorted[i - from] = order[i];
+            java.util.Arrays.sort(sorted, (a, b) -> Float.compare(lo[a] + hi[a], lo[b] + hi[b]));
+            for (int i = from; i < to; i++) order[i] = sorted[i - from];
+
+            int mid = (from + to) >>> 1;
+            int child = nodes;
+            nodes += 2;
+            left[node] = child;
+            build(child, from, mid, box);
+            build(child + 1, mid, to, box);
+        }
+
+        /**
+         * Whether the hierarchy has any colliders.
+         */
+        public boolean isEmpty() {
+            return order.length == 0;
+        }
+
+        /**
+         * Writes the root bounds (min x, y, z, then max x, y, z) into out.
+         */
+        public void rootBounds(float[] out) {
+            out[0] = minX[0];
+            out[1] = minY[0];
+            out[2] = minZ[0];
+            out[3] = maxX[0];
+            out[4] = maxY[0];
+            out[5] = maxZ[0];
+        }
+
+        /**
+         * Marks every collider slot whose padded box overlaps the given local-space box.
+         *
+         * @param hit Per-slot flags, at least as long as the collider count; set, never cleared
+         * @return Number of slots newly marked
+         */
+        public int query(float qMinX, float qMinY, float qMinZ, float qMaxX, float qMaxY, float qMaxZ, boolean[] hit) {
+            if (order.length == 0) return 0;
+            return query(0, qMinX, qMinY, qMinZ, qMaxX, qMaxY, qMaxZ, hit);
+        }
+
+        private int query(int node, float qMinX, float qMinY, float qMinZ, float qMaxX, float qMaxY, float qMaxZ, boolean[] hit) {
+            if (qMinX > maxX[node] || qMaxX < minX[node]
+                    || qMinY > maxY[node] || qMaxY < minY[node]
+                    || qMinZ > maxZ[node] || qMaxZ < minZ[node]) {
+                return 0;
+            }
+            int child = left[node];
+            if (child >= 0) {
+                return query(child, qMinX, qMinY, qMinZ, qMaxX, qMaxY, qMaxZ, hit)
+                     + query(child + 1, qMinX, qMinY, qMinZ, qMaxX, qMaxY, qMaxZ, hit);
+            }
+            int marked = 0;
+            float[][] box = slotBox;
+            for (int i = start[node]; i < end[node]; i++) {
+                int slot = order[i];
+                if (hit[slot]) continue;
+                if (qMinX > box[3][slot] || qMaxX < box[0][slot]
+                        || qMinY > box[4][slot] || qMaxY < box[1][slot]
+                        || qMinZ > box[5][slot] || qMaxZ < box[2][slot]) {
+                    continue;
+                }
+                hit[slot] = true;
+                marked++;
+            }
+            return marked;
+        }
+    }
+
     public static final class ModelPart {
         public final BlockData block;
         public final Matrix4f local;
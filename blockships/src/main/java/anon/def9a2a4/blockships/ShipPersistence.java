@@ -215,10 +215,23 @@ public final class ShipPersistence {
         public final String balloonColor;  // Balloon color for airships (e.g., "WHITE", "RED")
         public final Map<Integer, String> inventoryData;  // Block index -> Base64 serialized inventory contents
         public final Map<String, Object> modelData;  // Serialized model (for custom ships only, null for prefab)
+        // Already deserialized data, set instead of the serialized fields when the state comes from a save
+        // still queued in memory (see ShipWorldData#loadShipMetadata); null otherwise
+        public final ShipModel model;  // Custom ships
+        public final ItemStack banner;
+        public final Map<Integer, ItemStack[]> inventories;
 
         public ShipState(UUID id, String shipType, String modelPath, String worldName, double x, double y, double z,
                          float yaw, float pitch, String bannerData, String woodType, String balloonColor,
                          Map<Integer, String> inventoryData, Map<String, Object> modelData) {
+            this(id, shipType, modelPath, worldName, x, y, z, yaw, pitch, bannerData, woodType, balloonColor,
+                inventoryData, modelData, null, null, null);
+        }
+
+        public ShipState(UUID id, String shipType, String modelPath, String worldName, double x, double y, double z,
+                         float yaw, float pitch, String bannerData, String woodType, String balloonColor,
+                         Map<Integer, String> inventoryData, Map<String, Object> modelData,
+                         ShipModel model, ItemStack banner, Map<Integer, ItemStack[]> inventories) {
             this.id = id;
             this.shipType = shipType;
             this.modelPath = modelPath;
@@ -233,6 +246,9 @@ public final class ShipPersistence {
             this.balloonColor = balloonColor;
             this.inventoryData = inventoryData;
             this.modelData = modelData;
+            this.model = model;
+            this.banner = banner;
+            this.inventories = inventories;
         }
 
         // Create ShipState from a ShipInstance
@@ -0,0 +1,219 @@
+package anon.def9a2a4.blockships;
+
+import anon.def9a2a4.blockships.ship.ShipInstance;
+import anon.def9a2a4.blockships.ship.ShipProfiler;
+import anon.def9a2a4.blockships.ship.ShipProfiler.LatencyHistogram;
+import anon.def9a2a4.blockships.ship.ShipProfiler.Phase;
+import anon.def9a2a4.blockships.ship.ShipProfiler.ShipProfile;
+import anon.def9a2a4.blockships.ship.ShipSpatialQuery;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Handles /blockships profile, which records ship update timings for a few seconds and
+ * reports the results to the sender.
+ *
+ * Usage:
+ *   /blockships profile [seconds]              - per ship type summary and the slowest ships
+ *   /blockships profile top [count] [seconds]  - only the slowest ships
+ *   /blockships profile ship [uuid] [seconds]  - per-phase breakdown of one ship (default: the ship you're on)
+ */
+public class ShipProfileCommand {
+    private static final int DEFAULT_SECONDS = 10;
+    private static final int MAX_SECONDS = 300;
+    private static final int DEFAULT_TOP = 10;
+
+    private final JavaPlugin plugin;
+    private volatile boolean running = false;
+
+    public ShipProfileCommand(JavaPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * @param args Arguments after "profile"
+     */
+    public void handle(CommandSender sender, String[] args) {
+        if (running) {
+            sender.sendMessage("§cA profiling session is already running.");
+            return;
+        }
+
+        String mode = args.length > 0 ? args[0].toLowerCase() : "";
+        int seconds = DEFAULT_SECONDS;
+        int top = DEFAULT_TOP;
+        UUID shipId = null;
+
+        try {
+            if (mode.equals("top")) {
+                if (args.length > 1) top = Integer.parseInt(args[1]);
+                if (args.length > 2) seconds = Integer.parseInt(args[2]);
+            } else if (mode.equals("ship")) {
+                int next = 1;
+                if (args.length > 1 && args[1].contains("-")) {
+                    shipId = UUID.fromString(args[1]);
+                    next = 2;
+                } else {
+                    shipId = findShipOf(sender);
+                }
+                if (args.length > next) seconds = Integer.parseInt(args[next]);
+                if (shipId == null) {
+                    sender.sendMessage("§cYou're not on a ship. Usage: /blockships profile ship [uuid] [seconds]");
+                    return;
+                }
+            } else if (!mode.isEmpty()) {
+                seconds = Integer.parseInt(args[0]);
+            }
+        } catch (IllegalArgumentException e) {
+            sender.sendMessage("§cUsage: /blockships profile [ship [uuid]|top [count]] [seconds]");
+            return;
+        }
+
+        seconds = Math.max(1, Math.min(MAX_SECONDS, seconds));
+        top = Math.max(1, top);
+
+        running = true;
+        ShipProfiler.start();
+        sender.sendMessage("§7Profiling ships for " + seconds + "s...");
+
+        final String reportMode = mode;
+        final int reportTop = top;
+        final UUID reportShip = shipId;
+        ShipScheduling.runLater(plugin, seconds * 20L, () -> {
+            double elapsed = ShipProfiler.getSessionSeconds();
+            List<ShipProfile> results = ShipProfiler.stop();
+            running = false;
+            if (reportMode.equals("ship")) {
+                reportShip(sender, results, reportShip, elapsed);
+            } else {
+                sender.sendMessage("§6BlockShips profile §7(" + String.format("%.1f", elapsed) + "s, " +
+                    results.size() + " ship(s), times in µs p50/p95/p99)");
+                if (!reportMode.equals("top")) {
+                    reportTypes(sender, results);
+                }
+                reportTop(sender, results, reportTop);
+                reportDisplayUpdates(sender, results);
+                reportAllocation(sender, results);
+            }
+        });
+    }
+
+    /**
+     * Stops a running session without reporting (plugin disable).
+     */
+    public void cancel() {
+        if (running) {
+            ShipProfiler.stop();
+            running = false;
+        }
+    }
+
+    private void reportTypes(CommandSender sender, List<ShipProfile> results) {
+        sender.sendMessage("§eBy ship type (update total):");
+        for (Map.Entry<String, LatencyHistogram[]> entry : ShipProfiler.groupByType(results).entrySet()) {
+            LatencyHistogram total = entry.getValue()[Phase.TOTAL.ordinal()];
+            sender.sendMessage("§7  " + entry.getKey() + " §f" + formatPercentiles(total) +
+                " §8(" + total.getCount() + " updates)");
+        }
+    }
+
+    private void reportTop(CommandSender sender, List<ShipProfile> results, int top) {
+        List<ShipProfile> sorted = ShipProfiler.sortBySlowest(results);
+        int count = Math.min(top, sorted.size());
+        sender.sendMessage("§eTop " + count + " ship(s) by p95 update total:");
+        for (int i = 0; i < count; i++) {
+            ShipProfile profile = sorted.get(i);
+            sender.sendMessage("§7  " + (i + 1) + ". " + profile.shipType + " " + shortId(profile.shipId) +
+                " §8(" + profile.blockCount + " blocks, " + profile.colliderCount + " colliders) §f" +
+                formatPercentiles(profile.get(Phase.TOTAL)));
+        }
+    }
+
+    private void reportDisplayUpdates(CommandSender sender, List<ShipProfile> results) {
+        long sent = 0;
+        long skipped = 0;
+        for (ShipProfile profile : results) {
+            sent += profile.getDisplayUpdatesSent();
+            skipped += profile.getDisplayUpdatesSkipped();
+        }
+        sender.sendMessage("§eDisplay metadata updates: §f" + sent + " sent, " + skipped + " skipped");
+    }
+
+    /**
+     * Bytes allocated per collider per collider sync, over all ships (the sync is meant to allocate nothing).
+     */
+    private void reportAllocation(CommandSender sender, List<ShipProfile> results) {
+        long bytes = 0;
+        long colliderSyncs = 0;
+        for (ShipProfile profile : results) {
+            bytes += profile.getColliderSyncBytes();
+            colliderSyncs += profile.getColliderSyncs() * profile.colliderCount;
+        }
+        if (colliderSyncs > 0) {
+            sender.sendMessage("§eCollider sync allocation: §f" + formatBytesPerCollider(bytes, colliderSyncs));
+        }
+    }
+
+    private void reportShip(CommandSender sender, List<ShipProfile> results, UUID shipId, double elapsed) {
+        ShipProfile profile = null;
+        for (ShipProfile p : results) {
+            if (p.shipId.equals(shipId)) {
+                profile = p;
+                break;
+            }
+        }
+        if (profile == null) {
+            sender.sendMessage("§cShip " + shortId(shipId) + " didn't update during the session (asleep, frozen or gone).");
+            return;
+        }
+
+        sender.sendMessage("§6Ship " + profile.shipType + " " + shortId(profile.shipId) + " §7(" +
+            profile.blockCount + " blocks, " + profile.colliderCount + " colliders, " +
+            profile.get(Phase.TOTAL).getCount() + " updates in " + String.format("%.1f", elapsed) + "s)");
+        sender.sendMessage("§7Times in µs: mean, p50/p95/p99");
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram histogram = profile.get(phase);
+            sender.sendMessage("§7  " + phase.label + ": §f" + formatMicros(histogram.getMean()) + ", " +
+                formatPercentiles(histogram));
+        }
+        sender.sendMessage("§7Display metadata updates: §f" + profile.getDisplayUpdatesSent() + " sent, " +
+            profile.getDisplayUpdatesSkipped() + " skipped");
+        if (profile.getColliderSyncs() > 0 && profile.colliderCount > 0) {
+            sender.sendMessage("§7Collider sync allocation: §f" + formatBytesPerCollider(
+                profile.getColliderSyncBytes(), profile.getColliderSyncs() * profile.colliderCount));
+        }
+    }
+
+    private UUID findShipOf(CommandSender sender) {
+        if (!(sender instanceof Player player)) return null;
+        ShipInstance ship = EntityShipIndex.shipOf(player.getVehicle());
+        if (ship == null) {
+            // Not seated: the ship whose bounds the player is standing in or on
+            ship = ShipSpatialQuery.nearest(player.getLocation(), 1.0);
+        }
+        return ship != null ? ship.id : null;
+    }
+
+    private static String formatPercentiles(LatencyHistogram histogram) {
+        return formatMicros(histogram.percentile(0.50)) + "/" +
+            formatMicros(histogram.percentile(0.95)) + "/" +
+            formatMicros(histogram.percentile(0.99));
+    }
+
+    private static String formatBytesPerCollider(long bytes, long colliderSyncs) {
+        return String.format("%.1f", (double) bytes / colliderSyncs) + " B per collider per sync";
+    }
+
+    private static String formatMicros(long nanos) {
+        return String.format("%.1f", nanos / 1000.0);
+    }
+
+    private static String shortId(UUID id) {
+        return id.toString().substring(0, 8);
+    }
+}
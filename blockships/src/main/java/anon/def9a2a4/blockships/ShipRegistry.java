@@ -3,17 +3,69 @@ package anon.def9a2a4.blockships;
 import anon.def9a2a4.blockships.ship.ShipInstance;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Entity;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * Global lookup of loaded ships. Thread-safe so region threads (Folia) can register,
+ * look up and unregister ships concurrently.
+ *
+ * Ships are also indexed by the chunk their vehicle is in (per world, keyed by packed chunk
+ * coordinates), so chunk unloads find their ships without scanning the registry. A ship's entry
+ * moves when its tick notices it crossed into another chunk (see {@link #updateChunk}).
+ */
 public final class ShipRegistry {
-    private static final Map<UUID, ShipInstance> byId = new HashMap<>();
-    private static final Map<UUID, ShipInstance> byVehicle = new HashMap<>();
+    private static final Map<UUID, ShipInstance> byId = new ConcurrentHashMap<>();
+    private static final Map<UUID, ShipInstance> byVehicle = new ConcurrentHashMap<>();
+    // Registration order (used for round-robin ticking); an immutable snapshot replaced on every
+    // change, so it is read every tick without copying. Writers hold orderLock.
+    private static volatile List<ShipInstance> ordered = List.of();
+    private static final Object orderLock = new Object();
+    // Player -> ship they are driving; read on the network thread for every steering packet
+    private static final Map<UUID, ShipInstance> byDriver = new ConcurrentHashMap<>();
+    // World -> packed chunk key -> ships whose vehicle is in that chunk, and where each ship is indexed
+    private static final Map<UUID, Map<Long, List<ShipInstance>>> byChunk = new ConcurrentHashMap<>();
+    private static final Map<ShipInstance, ChunkPos> chunkOf = new ConcurrentHashMap<>();
+
+    /**
+     * A chunk in a world, as indexed.
+     */
+    private static final class ChunkPos {
+        final UUID world;
+        final long key;
+
+        ChunkPos(UUID world, long key) {
+            this.world = world;
+            this.key = key;
+        }
+
+        boolean equals(UUID world, long key) {
+            return this.world.equals(world) && this.key == key;
+        }
+    }
 
     public static void register(ShipInstance s) {
-        byId.put(s.id, s);
+        ShipInstance previous = byId.put(s.id, s);
+        synchronized (orderLock) {
+            List<ShipInstance> next = new ArrayList<>(ordered);
+            if (previous != null) {
+                next.remove(previous);
+            }
+            next.add(s);
+            ordered = List.copyOf(next);
+        }
+        if (previous != null) {
+            unindexChunk(previous);
+        }
         byVehicle.put(s.vehicle.getUniqueId(), s);
+        Location loc = s.vehicle.getLocation();
+        if (loc.getWorld() != null) {
+            updateChunk(s, loc.getWorld(), loc.getBlockX() >> 4, loc.getBlockZ() >> 4);
+        }
     }
 
     public static ShipInstance byId(UUID id) {
@@ -25,32 +77,110 @@ public final class ShipRegistry {
     }
 
     public static void unregister(ShipInstance s) {
-        byId.remove(s.id);
-        byVehicle.remove(s.vehicle.getUniqueId());
+        byId.remove(s.id, s);
+        byVehicle.remove(s.vehicle.getUniqueId(), s);
+        synchronized (orderLock) {
+            if (ordered.contains(s)) {
+                List<ShipInstance> next = new ArrayList<>(ordered);
+                next.remove(s);
+                ordered = List.copyOf(next);
+            }
+        }
+        unindexChunk(s);
+        byDriver.values().removeIf(ship -> ship == s);
     }
 
-    public static Collection<ShipInstance> getAllShips() {
-        return new ArrayList<>(byId.values());
+    /**
+     * Moves a registered ship's chunk index entry. Called when the ship's tick sees its vehicle
+     * enter another chunk; does nothing for unregistered ships or if the chunk is unchanged.
+     */
+    public static void updateChunk(ShipInstance s, World world, int chunkX, int chunkZ) {
+        if (byId.get(s.id) != s) return;
+        UUID worldId = world.getUID();
+        long key = CellTable.key(chunkX, chunkZ);
+        ChunkPos old = chunkOf.get(s);
+        if (old != null && old.equals(worldId, key)) return;
+
+        chunkOf.put(s, new ChunkPos(worldId, key));
+        if (old != null) {
+            removeFromChunk(s, old);
+        }
+        byChunk.computeIfAbsent(worldId, w -> new ConcurrentHashMap<>())
+            .compute(key, (k, ships) -> {
+                if (ships == null) ships = new CopyOnWriteArrayList<>();
+                ships.add(s);
+                return ships;
+            });
     }
 
-    public static List<ShipInstance> getShipsInChunk(Chunk chunk) {
-        List<ShipInstance> result = new ArrayList<>();
-        for (ShipInstance inst : byId.values()) {
-            // Use block coordinates to determine chunk without loading it
-            // This avoids issues with invalid entity references
-            Location loc = inst.vehicle.getLocation();
-            if (loc.getWorld() != null && loc.getWorld().equals(chunk.getWorld()) &&
-                loc.getBlockX() >> 4 == chunk.getX() &&
-                loc.getBlockZ() >> 4 == chunk.getZ()) {
-                result.add(inst);
-            }
+    private static void unindexChunk(ShipInstance s) {
+        ChunkPos pos = chunkOf.remove(s);
+        if (pos != null) {
+            removeFromChunk(s, pos);
         }
-        return result;
+    }
+
+    private static void removeFromChunk(ShipInstance s, ChunkPos pos) {
+        Map<Long, List<ShipInstance>> chunks = byChunk.get(pos.world);
+        if (chunks == null) return;
+        chunks.computeIfPresent(pos.key, (k, ships) -> {
+            ships.remove(s);
+            return ships.isEmpty() ? null : ships;
+        });
+    }
+
+    public static void setDriver(Entity player, ShipInstance s) {
+        byDriver.put(player.getUniqueId(), s);
+    }
+
+    /**
+     * Forgets the player as a driver, if they were driving the given ship.
+     */
+    public static void clearDriver(Entity player, ShipInstance s) {
+        byDriver.remove(player.getUniqueId(), s);
+    }
+
+    public static void clearDriver(Entity player) {
+        byDriver.remove(player.getUniqueId());
+    }
+
+    /**
+     * The ship the player is driving, or null. Safe to call from any thread.
+     */
+    public static ShipInstance byDriver(Entity player) {
+        return byDriver.get(player.getUniqueId());
+    }
+
+    /**
+     * The loaded ships in registration order, as an immutable snapshot (not a copy), so hot paths can
+     * call it every tick. Each call returns the current snapshot; iterating it is safe while ships
+     * register or unregister.
+     */
+    public static List<ShipInstance> getAllShips() {
+        return ordered;
+    }
+
+    /**
+     * Ships whose vehicle is in the chunk, from the chunk index. The result is a read-only view
+     * that stays safe to iterate while ships unregister.
+     */
+    public static List<ShipInstance> getShipsInChunk(Chunk chunk) {
+        Map<Long, List<ShipInstance>> chunks = byChunk.get(chunk.getWorld().getUID());
+        if (chunks == null) return List.of();
+        List<ShipInstance> ships = chunks.get(CellTable.key(chunk.getX(), chunk.getZ()));
+        return ships != null ? Collections.unmodifiableList(ships) : List.of();
     }
 
     public static void destroyAll() {
-        new ArrayList<>(byId.values()).forEach(ShipInstance::destroy);
+        ordered.forEach(ShipInstance::destroy);
         byId.clear();
         byVehicle.clear();
+        synchronized (orderLock) {
+            ordered = List.of();
+        }
+        byDriver.clear();
+        byChunk.clear();
+        chunkOf.clear();
+        EntityShipIndex.clear();
     }
 }
@@ -0,0 +1,166 @@
+package anon.def9a2a4.blockships;
+
+import io.papermc.paper.entity.TeleportFlag;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Scheduling helpers that work on both regular Paper and Folia.
+ *
+ * On Paper everything runs on the single main thread through the Bukkit scheduler.
+ * On Folia, entity work is routed through the entity's own scheduler (which follows the
+ * entity across regions), location work through the region scheduler, and everything
+ * else through the global region scheduler.
+ */
+public final class ShipScheduling {
+    private static final boolean FOLIA = detectFolia();
+
+    /**
+     * Handle for a repeating task, independent of the scheduler that created it.
+     */
+    public interface Task {
+        void cancel();
+    }
+
+    private ShipScheduling() {}
+
+    private static boolean detectFolia() {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    public static boolean isFolia() {
+        return FOLIA;
+    }
+
+    /**
+     * Returns true if the current thread may touch this entity directly.
+     * Always true on Paper (all callers run on the main thread).
+     */
+    public static boolean isOwnedByCurrentRegion(Entity entity) {
+        return !FOLIA || Bukkit.isOwnedByCurrentRegion(entity);
+    }
+
+    /**
+     * Returns true if the current thread is the one that ticks this entity: its region thread on Folia,
+     * the main thread on Paper. Unlike {@link #isOwnedByCurrentRegion} this is false on other threads
+     * (network, async tasks) on Paper too.
+     */
+    public static boolean isOwnedByCurrentThread(Entity entity) {
+        return FOLIA ? Bukkit.isOwnedByCurrentRegion(entity) : Bukkit.isPrimaryThread();
+    }
+
+    /**
+     * Runs a task on the thread that owns the entity: immediately if we already own it,
+     * otherwise on the entity's scheduler at the next opportunity.
+     */
+    public static void run(Plugin plugin, Entity entity, Runnable task) {
+        if (isOwnedByCurrentRegion(entity)) {
+            task.run();
+        } else {
+            entity.getScheduler().run(plugin, t -> task.run(), null);
+        }
+    }
+
+    /**
+     * Runs a task after a delay on the thread that owns the entity.
+     * On Folia the task is dropped if the entity is removed before it runs.
+     */
+    public static void runLater(Plugin plugin, Entity entity, long delayTicks, Runnable task) {
+        if (FOLIA) {
+            entity.getScheduler().runDelayed(plugin, t -> task.run(), null, Math.max(1L, delayTicks));
+        } else {
+            Bukkit.getScheduler().runTaskLater(plugin, task, delayTicks);
+        }
+    }
+
+    /**
+     * Runs a task after a delay that isn't tied to any entity or location.
+     */
+    public static void runLater(Plugin plugin, long delayTicks, Runnable task) {
+        if (FOLIA) {
+            Bukkit.getGlobalRegionScheduler().runDelayed(plugin, t -> task.run(), Math.max(1L, delayTicks));
+        } else {
+            Bukkit.getScheduler().runTaskLater(plugin, task, delayTicks);
+        }
+    }
+
+    /**
+     * Runs a repeating task that isn't tied to any entity or location.
+     */
+    public static Task runTimer(Plugin plugin, long delayTicks, long periodTicks, Runnable task) {
+        if (FOLIA) {
+            var scheduled = Bukkit.getGlobalRegionScheduler()
+                .runAtFixedRate(plugin, t -> task.run(), Math.max(1L, delayTicks), periodTicks);
+            return scheduled::cancel;
+        }
+        var scheduled = Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks);
+        return scheduled::cancel;
+    }
+
+    /**
+     * Runs a repeating task on the region that owns a location.
+     */
+    public static Task runTimer(Plugin plugin, Location location, long delayTicks, long periodTicks, Runnable task) {
+        if (FOLIA) {
+            var scheduled = Bukkit.getRegionScheduler()
+                .runAtFixedRate(plugin, location, t -> task.run(), Math.max(1L, delayTicks), periodTicks);
+            return scheduled::cancel;
+        }
+        var scheduled = Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks);
+        return scheduled::cancel;
+    }
+
+    /**
+     * Runs a repeating task on the thread that owns the entity, following it across regions.
+     * The retired callback runs if the entity is removed while the task is still scheduled
+     * (Folia only; on Paper the task must be cancelled explicitly).
+     *
+     * @return The task handle, or null if the entity was already removed
+     */
+    public static Task runTimer(Plugin plugin, Entity entity, long delayTicks, long periodTicks,
+                                Runnable task, Runnable retired) {
+        if (FOLIA) {
+            var scheduled = entity.getScheduler()
+                .runAtFixedRate(plugin, t -> task.run(), retired, Math.max(1L, delayTicks), periodTicks);
+            return scheduled != null ? scheduled::cancel : null;
+        }
+        var scheduled = Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks);
+        return scheduled::cancel;
+    }
+
+    /**
+     * Teleports an entity, keeping its passengers.
+     * Folia doesn't support synchronous teleports, so the async variant is used there.
+     * The location is copied before it is handed off, so callers may reuse it.
+     */
+    public static void teleport(Entity entity, Location location) {
+        if (FOLIA) {
+            entity.teleportAsync(location.clone(), PlayerTeleportEvent.TeleportCause.PLUGIN,
+                TeleportFlag.EntityState.RETAIN_PASSENGERS);
+        } else {
+            entity.teleport(location);
+        }
+    }
+
+    /**
+     * Like {@link #teleport}, but hands the location over without copying it. The caller may only
+     * overwrite it with a later target for the same entity (a teleport still pending then goes to the
+     * newer target), never reuse it for anything else.
+     */
+    public static void teleportTo(Entity entity, Location target) {
+        if (FOLIA) {
+            entity.teleportAsync(target, PlayerTeleportEvent.TeleportCause.PLUGIN,
+                TeleportFlag.EntityState.RETAIN_PASSENGERS);
+        } else {
+            entity.teleport(target);
+        }
+    }
+}
@@ -9,20 +9,41 @@ import com.comphenix.protocol.events.PacketAdapter;
 import com.comphenix.protocol.events.PacketContainer;
 import com.comphenix.protocol.events.PacketEvent;
 import com.comphenix.protocol.reflect.StructureModifier;
-import org.bukkit.entity.ArmorStand;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDismountEvent;
+import org.bukkit.event.entity.EntityMountEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 
-import java.util.UUID;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
 
 /**
  * Listens to player input packets to detect WASD controls for ship steering.
  * W/S control forward/backward speed, A/D control left/right rotation.
+ *
+ * Packets arrive on the network thread, so handling one never touches an entity: the driver's ship
+ * comes from {@link ShipRegistry#byDriver} (kept up to date from mount and dismount events on the
+ * main thread), the Input record is read through method handles resolved once, and the keys are
+ * stored as one packed int the ship's next tick reads.
+ *
+ * The same mount and dismount events also record who sits on each seat collider, which collider sync
+ * uses to re-seat players its teleports dismount.
  */
-public class ShipSteeringListener {
+public class ShipSteeringListener implements Listener {
     private final JavaPlugin plugin;
     private final ProtocolManager protocolManager;
 
+    // Accessors for the packet's Input record, resolved from the first packet (null until then)
+    private volatile InputReader inputReader;
+
     public ShipSteeringListener(JavaPlugin plugin) {
         this.plugin = plugin;
         this.protocolManager = ProtocolLibrary.getProtocolManager();
@@ -39,6 +60,7 @@ public class ShipSteeringListener {
                 }
             }
         );
+        Bukkit.getPluginManager().registerEvents(this, plugin);
         plugin.getLogger().info("Ship steering listener registered (ProtocolLib WASD detection)");
     }
 
@@ -47,8 +69,8 @@ public class ShipSteeringListener {
         PacketContainer packet = event.getPacket();
 
         try {
-            // Find ship instance for this player (only returns if player is in driver seat)
-            ShipInstance ship = findShipByPlayer(player);
+            // Ship this player is driving (only set while they sit in a driver seat)
+            ShipInstance ship = ShipRegistry.byDriver(player);
             if (ship == null) {
                 return;
             }
@@ -64,53 +86,98 @@ public class ShipSteeringListener {
                 return;
             }
 
-            // Use reflection to read the boolean fields from the Input record
-            try {
-                Class<?> inputClass = inputObj.getClass();
-                boolean forward = (boolean) inputClass.getMethod("forward").invoke(inputObj);
-                boolean backward = (boolean) inputClass.getMethod("backward").invoke(inputObj);
-                boolean left = (boolean) inputClass.getMethod("left").invoke(inputObj);
-                boolean right = (boolean) inputClass.getMethod("right").invoke(inputObj);
-                boolean jump = (boolean) inputClass.getMethod("jump").invoke(inputObj);
-                boolean sprint = (boolean) inputClass.getMethod("sprint").invoke(inputObj);
-
-                // Update ship input state (physics will apply every tick)
-                ship.setInputState(forward, backward, left, right);
-
-                // Update vertical input for all ships (custom airships use base class method)
-                ship.setVerticalInputState(jump, sprint);
-            } catch (Exception e) {
-                plugin.getLogger().warning("Failed to read Input fields: " + e.getMessage());
+            InputReader reader = inputReader;
+            if (reader == null || reader.type != inputObj.getClass()) {
+                try {
+                    reader = new InputReader(inputObj.getClass());
+                } catch (ReflectiveOperationException e) {
+                    plugin.getLogger().warning("Failed to read Input fields: " + e.getMessage());
+                    return;
+                }
+                inputReader = reader;
             }
 
-        } catch (Exception ex) {
+            // Update ship input state (physics will apply every tick)
+            int bits = reader.read(inputObj);
+            int previous = ship.setInput(bits);
+
+            // Any new input wakes a sleeping ship before physics reads it (wake() hands itself to the owning thread)
+            if (bits != previous) {
+                ship.wake();
+            }
+        } catch (Throwable ex) {
             plugin.getLogger().warning("Error handling steering packet: " + ex.getMessage());
             ex.printStackTrace();
         }
     }
 
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMount(EntityMountEvent e) {
+        if (!(e.getEntity() instanceof Player player)) return;
+        Entity mount = e.getMount();
+        EntityShipIndex.Entry entry = EntityShipIndex.get(mount);
+        if (entry == null || entry.seatIndex < 0) return;
+        entry.ship.setSeatOccupant(mount, player);
+        // Only the driver seat (index 0) steers
+        if (entry.seatIndex == 0) {
+            ShipRegistry.setDriver(player, entry.ship);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDismount(EntityDismountEvent e) {
+        if (!(e.getEntity() instanceof Player player)) return;
+        Entity mount = e.getDismounted();
+        EntityShipIndex.Entry entry = EntityShipIndex.get(mount);
+        if (entry == null || entry.seatIndex < 0) return;
+        entry.ship.setSeatOccupant(mount, null);
+        if (entry.seatIndex == 0) {
+            ShipRegistry.clearDriver(player, entry.ship);
+            entry.ship.setInput(0);
+        }
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent e) {
+        ShipRegistry.clearDriver(e.getPlayer());
+    }
+
     /**
-     * Find the ship instance the player is currently riding.
-     * Only returns the ship if the player is in the DRIVER seat.
-     * @param player The player
-     * @return ShipInstance if player is riding a ship as driver, null otherwise
+     * Reads the key booleans of the Input record into INPUT_* bits through cached method handles.
      */
-    private ShipInstance findShipByPlayer(Player player) {
-        // Check if player is riding a ship seat shulker (Shulker with displayship:{uuid} and shipseat:{index} tags)
-        if (player.getVehicle() instanceof org.bukkit.entity.Shulker shulker) {
-            // Parse tags: displayship:{uuid} and shipseat:{index}
-            // Tag creation: ShipInstance constructor (lines 290-300)
-            java.util.Set<String> tags = shulker.getScoreboardTags();
-            UUID shipId = ShipTags.extractShipId(tags);
-            int seatIndex = ShipTags.extractSeatIndex(tags);
-
-            // Only return ship if player is in driver seat (index 0)
-            if (shipId != null && seatIndex == 0) {
-                return ShipRegistry.byId(shipId);
-            }
+    private static final class InputReader {
+        private static final MethodType ACCESSOR = MethodType.methodType(boolean.class, Object.class);
+
+        final Class<?> type;
+        private final MethodHandle forward, backward, left, right, jump, sprint;
+
+        InputReader(Class<?> type) throws ReflectiveOperationException {
+            this.type = type;
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            forward = accessor(lookup, type, "forward");
+            backward = accessor(lookup, type, "backward");
+            left = accessor(lookup, type, "left");
+            right = accessor(lookup, type, "right");
+            jump = accessor(lookup, type, "jump");
+            sprint = accessor(lookup, type, "sprint");
         }
-        return null;
-    }
-}
 
+        private static MethodHandle accessor(MethodHandles.Lookup lookup, Class<?> type, String name)
+                throws ReflectiveOperationException {
+            java.lang.reflect.Method method = type.getMethod(name);
+            method.setAccessible(true);  // Record may not be exported to us
+            return lookup.unreflect(method).asType(ACCESSOR);
+        }
 
+        int read(Object input) throws Throwable {
+            int bits = 0;
+            if ((boolean) forward.invokeExact(input)) bits |= ShipInstance.INPUT_FORWARD;
+            if ((boolean) backward.invokeExact(input)) bits |= ShipInstance.INPUT_BACKWARD;
+            if ((boolean) left.invokeExact(input)) bits |= ShipInstance.INPUT_LEFT;
+            if ((boolean) right.invokeExact(input)) bits |= ShipInstance.INPUT_RIGHT;
+            if ((boolean) jump.invokeExact(input)) bits |= ShipInstance.INPUT_JUMP;
+            if ((boolean) sprint.invokeExact(input)) bits |= ShipInstance.INPUT_SPRINT;
+            return bits;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package anon.def9a2a4.blockships;
+
+import anon.def9a2a4.blockships.ship.ShipCollision;
+import anon.def9a2a4.blockships.ship.ShipInstance;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockPhysicsEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.FluidLevelChangeEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.entity.EntityUnleashEvent;
+import org.bukkit.event.entity.PlayerLeashEntityEvent;
+
+import java.util.List;
+
+/**
+ * Wakes sleeping ships when something changes around them.
+ * Block and fluid changes inside a sleeping ship's hull footprint wake it so it can
+ * fall or re-float, and leads attached to or pulled off a ship wake it as well.
+ * Steering, seat and damage triggers are handled where those events are already processed.
+ *
+ * The same block changes, plus block physics updates, also clear the affected block from the
+ * cached terrain window of the ships around it so collision re-reads it. Those ships are looked up
+ * by position (see {@link ShipCollision#blockChanged}), so an update costs the same however many
+ * ships are loaded elsewhere.
+ */
+public class ShipWakeListener implements Listener {
+
+    @EventHandler
+    public void onBlockBreak(BlockBreakEvent e) {
+        wakeShipsAround(e.getBlock());
+    }
+
+    @EventHandler
+    public void onBlockPlace(BlockPlaceEvent e) {
+        wakeShipsAround(e.getBlock());
+    }
+
+    @EventHandler
+    public void onFluidFlow(BlockFromToEvent e) {
+        wakeShipsAround(e.getToBlock());
+    }
+
+    @EventHandler
+    public void onFluidLevelChange(FluidLevelChangeEvent e) {
+        wakeShipsAround(e.getBlock());
+    }
+
+    @EventHandler
+    public void onBlockExplode(BlockExplodeEvent e) {
+        wakeShipsAround(e.blockList());
+    }
+
+    @EventHandler
+    public void onEntityExplode(EntityExplodeEvent e) {
+        wakeShipsAround(e.blockList());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPhysics(BlockPhysicsEvent e) {
+        invalidateTerrain(e.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityChangeBlock(EntityChangeBlockEvent e) {
+        // Falling blocks, endermen, etc. change blocks without a place/break event
+        invalidateTerrain(e.getBlock());
+    }
+
+    @EventHandler
+    public void onLeash(PlayerLeashEntityEvent e) {
+        wakeShipOf(e.getLeashHolder());
+    }
+
+    @EventHandler
+    public void onUnleash(EntityUnleashEvent e) {
+        // Fires before the leash is removed, so the holder is still known (e.g. lead snapped by distance)
+        if (e.getEntity() instanceof LivingEntity living && living.isLeashed()) {
+            wakeShipOf(living.getLeashHolder());
+        }
+    }
+
+    private void wakeShipOf(Entity holder) {
+        ShipInstance ship = EntityShipIndex.shipOf(holder);
+        if (ship != null) {
+            ship.wake();
+        }
+    }
+
+    private void wakeShipsAround(List<Block> blocks) {
+        for (Block block : blocks) {
+            wakeShipsAround(block);
+        }
+    }
+
+    private void wakeShipsAround(Block block) {
+        ShipCollision.blockChanged(block.getWorld(), block.getX(), block.getY(), block.getZ(), true);
+    }
+
+    private void invalidateTerrain(Block block) {
+        ShipCollision.blockChanged(block.getWorld(), block.getX(), block.getY(), block.getZ(), false);
+    }
+}
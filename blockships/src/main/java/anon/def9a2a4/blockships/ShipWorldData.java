@@ -1,14 +1,26 @@
 package anon.def9a2a4.blockships;
 
 import anon.def9a2a4.blockships.ship.ShipInstance;
+import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Manages per-world ship data storage for chunk-based loading.
@@ -16,61 +28,68 @@ import java.util.*;
  * Storage structure:
  *   worlds/{worldName}/chunks.yml - Maps "x,z" -> list of ship UUIDs
  *   worlds/{worldName}/ships/{uuid}.yml - Individual ship metadata
+ *
+ * In memory, each world's chunk index is a {@link ShipChunkIndex} keyed by packed chunk coordinates,
+ * so a ship crossing a chunk border doesn't build key strings or scan lists.
+ *
+ * Saves are two-phase: the caller takes a snapshot (item copies, index entries), and a single I/O thread
+ * serializes it and writes it to a temp file that is then renamed over the real one, so a crash mid-write
+ * never leaves a truncated file. {@link #close} waits for queued writes.
  */
 public class ShipWorldData {
     private final JavaPlugin plugin;
     private final File worldsFolder;
 
-    // In-memory chunk indices: world name -> "x,z" -> list of ship UUIDs
-    private final Map<String, Map<String, List<UUID>>> chunkIndices = new HashMap<>();
+    // In-memory chunk indices by world UID (see ShipChunkIndex)
+    // Concurrent so ships ticking on different region threads (Folia) can update it
+    private final Map<UUID, ShipChunkIndex> chunkIndices = new ConcurrentHashMap<>();
+    // Indices read from disk for worlds that weren't loaded yet, by world name; adopted on first use
+    private final Map<String, ShipChunkIndex> unloadedIndices = new ConcurrentHashMap<>();
+
+    // File writes run in order on one I/O thread; callers only snapshot what needs saving
+    private final ExecutorService ioExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "BlockShips-IO");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Latest metadata snapshot per ship that its queued write hasn't picked up yet
+    private final Map<UUID, MetadataSnapshot> pendingMetadata = new ConcurrentHashMap<>();
+    // Latest chunk index snapshot per world name that its queued write hasn't picked up yet
+    private final Map<String, Map<String, List<String>>> pendingIndices = new ConcurrentHashMap<>();
+    // Ships whose file deletion is queued but hasn't run; a later save cancels it
+    private final Set<UUID> pendingRemovals = ConcurrentHashMap.newKeySet();
+    // Striped locks serializing the writes of one ship's file, taken by the I/O thread and by loads
+    private final Object[] shipLocks = new Object[64];
 
     public ShipWorldData(JavaPlugin plugin) {
         this.plugin = plugin;
         this.worldsFolder = new File(plugin.getDataFolder(), "worlds");
+        for (int i = 0; i < shipLocks.length; i++) {
+            shipLocks[i] = new Object();
+        }
     }
 
     // ===== Chunk Index Operations =====
 
     /**
-     * Gets the list of ship UUIDs in a specific chunk.
+     * Gets the list of ship UUIDs in a specific chunk (read-only).
      */
     public List<UUID> getShipsInChunk(World world, int chunkX, int chunkZ) {
-        String key = chunkX + "," + chunkZ;
-        Map<String, List<UUID>> worldIndex = chunkIndices.get(world.getName());
-        if (worldIndex == null) return Collections.emptyList();
-        List<UUID> ships = worldIndex.get(key);
-        return ships != null ? new ArrayList<>(ships) : Collections.emptyList();
+        return index(world).get(CellTable.key(chunkX, chunkZ));
     }
 
     /**
      * Adds a ship to the chunk index.
      */
     public void addToChunkIndex(World world, UUID shipId, int chunkX, int chunkZ) {
-        String worldName = world.getName();
-        String key = chunkX + "," + chunkZ;
-
-        chunkIndices.computeIfAbsent(worldName, k -> new HashMap<>())
-                    .computeIfAbsent(key, k -> new ArrayList<>())
-                    .add(shipId);
+        index(world).add(shipId, CellTable.key(chunkX, chunkZ));
     }
 
     /**
      * Removes a ship from the chunk index.
      */
     public void removeFromChunkIndex(World world, UUID shipId, int chunkX, int chunkZ) {
-        String worldName = world.getName();
-        String key = chunkX + "," + chunkZ;
-
-        Map<String, List<UUID>> worldIndex = chunkIndices.get(worldName);
-        if (worldIndex == null) return;
-
-        List<UUID> ships = worldIndex.get(key);
-        if (ships != null) {
-            ships.remove(shipId);
-            if (ships.isEmpty()) {
-                worldIndex.remove(key);
-            }
-        }
+        index(world).remove(shipId, CellTable.key(chunkX, chunkZ));
     }
 
     /**
@@ -79,8 +98,17 @@ public class ShipWorldData {
     public void updateChunkIndex(World world, UUID shipId,
                                   int oldChunkX, int oldChunkZ,
                                   int newChunkX, int newChunkZ) {
-        removeFromChunkIndex(world, shipId, oldChunkX, oldChunkZ);
-        addToChunkIndex(world, shipId, newChunkX, newChunkZ);
+        index(world).move(shipId, CellTable.key(oldChunkX, oldChunkZ), CellTable.key(newChunkX, newChunkZ));
+    }
+
+    /**
+     * The world's chunk index, created (or taken over from the ones loaded before the world was) on first use.
+     */
+    private ShipChunkIndex index(World world) {
+        return chunkIndices.computeIfAbsent(world.getUID(), id -> {
+            ShipChunkIndex loaded = unloadedIndices.remove(world.getName());
+            return loaded != null ? loaded : new ShipChunkIndex(world.getName());
+        });
     }
 
     // ===== Ship Metadata Operations =====
@@ -88,49 +116,73 @@ public class ShipWorldData {
     /**
      * Saves ship metadata to per-world storage.
      * Does NOT include position - that comes from the recovered vehicle entity.
+     *
+     * Only the snapshot is taken here (on the thread that owns the ship); serializing and writing happen
+     * on the I/O thread. Saves of a ship that are still queued collapse into the latest one.
      */
     public void saveShipMetadata(ShipInstance ship) {
         World world = ship.vehicle.getLocation().getWorld();
         if (world == null) return;
 
-        File shipFile = getShipFile(world.getName(), ship.id);
-        shipFile.getParentFile().mkdirs();
+        MetadataSnapshot snapshot = new MetadataSnapshot(ship, world.getName(),
+            plugin.getConfig().getString("ships." + ship.shipType + ".model-path"));
+        pendingRemovals.remove(ship.id);  // Saved again, so a queued removal must not delete it
+        if (pendingMetadata.put(ship.id, snapshot) == null) {
+            // No write queued for this ship yet; the one already queued picks up the newer snapshot
+            submit(() -> writeMetadata(ship.id));
+        }
+    }
+
+    /**
+     * Serializes and writes the latest snapshot queued for a ship. Runs on the I/O thread; the ship's lock
+     * keeps it from writing the same file as a removal, and loads from reading a write still in progress.
+     */
+    private void writeMetadata(UUID shipId) {
+        synchronized (lockFor(shipId)) {
+            MetadataSnapshot snapshot = pendingMetadata.remove(shipId);
+            if (snapshot == null) return;  // Written by an earlier task or a load, or the ship was removed
+            writeMetadata(snapshot);
+        }
+    }
+
+    private void writeMetadata(MetadataSnapshot snapshot) {
+        ShipEvents.MetadataSaveEvent event = new ShipEvents.MetadataSaveEvent();
+        event.begin();
 
         YamlConfiguration config = new YamlConfiguration();
-        config.set("id", ship.id.toString());
-        config.set("ship_type", ship.shipType);
+        config.set("id", snapshot.id.toString());
+        config.set("ship_type", snapshot.shipType);
 
         // Model path for prefab ships
-        String modelPath = plugin.getConfig().getString("ships." + ship.shipType + ".model-path");
-        if (modelPath != null) {
-            config.set("model_path", modelPath);
+        if (snapshot.modelPath != null) {
+            config.set("model_path", snapshot.modelPath);
         }
 
         // Model data for custom ships
-        if ("custom".equals(ship.shipType) && ship.sourceModel != null) {
-            config.set("model_data", ship.sourceModel.toMap());
+        if (snapshot.model != null) {
+            config.set("model_data", snapshot.model.toMap());
         }
 
         // Customization
-        config.set("wood_type", ship.customization.getWoodType());
-        if (ship.customization.getBalloonColor() != null) {
-            config.set("balloon_color", ship.customization.getBalloonColor());
+        config.set("wood_type", snapshot.woodType);
+        if (snapshot.balloonColor != null) {
+            config.set("balloon_color", snapshot.balloonColor);
         }
-        if (ship.customization.getCustomBanner() != null) {
+        if (snapshot.banner != null) {
             try {
-                byte[] bytes = ship.customization.getCustomBanner().serializeAsBytes();
+                byte[] bytes = snapshot.banner.serializeAsBytes();
                 config.set("banner", Base64.getEncoder().encodeToString(bytes));
             } catch (Exception e) {
-                plugin.getLogger().warning("Failed to serialize banner for ship " + ship.id + ": " + e.getMessage());
+                plugin.getLogger().warning("Failed to serialize banner for ship " + snapshot.id + ": " + e.getMessage());
             }
         }
 
         // Inventory contents
         Map<String, String> inventories = new HashMap<>();
-        for (Map.Entry<Integer, org.bukkit.inventory.Inventory> entry : ship.storages.entrySet()) {
+        for (Map.Entry<Integer, ItemStack[]> entry : snapshot.inventories.entrySet()) {
             try {
                 List<String> itemsData = new ArrayList<>();
-                for (ItemStack item : entry.getValue().getContents()) {
+                for (ItemStack item : entry.getValue()) {
                     if (item != null && !item.getType().isAir()) {
                         byte[] bytes = item.serializeAsBytes();
                         itemsData.add(Base64.getEncoder().encodeToString(bytes));
@@ -148,24 +200,43 @@ public class ShipWorldData {
         }
 
         try {
-            config.save(shipFile);
+            writeAtomically(getShipFile(snapshot.worldName, snapshot.id), config.saveToString());
         } catch (IOException e) {
-            plugin.getLogger().severe("Failed to save ship metadata for " + ship.id + ": " + e.getMessage());
+            plugin.getLogger().severe("Failed to save ship metadata for " + snapshot.id + ": " + e.getMessage());
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.setShip(snapshot.id, snapshot.shipType, snapshot.blockCount, snapshot.entityCount);
+            event.commit();
         }
     }
 
     /**
      * Loads ship metadata from per-world storage.
      * Returns a ShipState without position data.
+     *
+     * A save still queued for the ship (e.g. chunk unload, then reload) is newer than the file, so the state
+     * is built from its snapshot in memory instead; the snapshot stays queued for the I/O thread to write.
      */
     public ShipPersistence.ShipState loadShipMetadata(World world, UUID shipId) {
+        if (pendingRemovals.contains(shipId)) {
+            return null;  // Removed; the file is about to be deleted
+        }
         File shipFile = getShipFile(world.getName(), shipId);
-        if (!shipFile.exists()) {
-            return null;
+        YamlConfiguration config;
+        // Under the ship's lock, a snapshot the I/O thread has taken off the queue is already in the file
+        synchronized (lockFor(shipId)) {
+            MetadataSnapshot pending = pendingMetadata.get(shipId);
+            if (pending != null && pending.worldName.equals(world.getName())) {
+                return pending.toState();
+            }
+            if (!shipFile.exists()) {
+                return null;
+            }
+            config = YamlConfiguration.loadConfiguration(shipFile);
         }
 
-        YamlConfiguration config = YamlConfiguration.loadConfiguration(shipFile);
-
         String id = config.getString("id");
         String shipType = config.getString("ship_type", "smallship");
         String modelPath = config.getString("model_path");
@@ -213,19 +284,21 @@ public class ShipWorldData {
      * Removes a ship from storage completely.
      */
     public void removeShip(World world, UUID shipId) {
-        // Remove ship file
+        // Drop any queued save, then remove the ship file behind writes already in progress
+        pendingMetadata.remove(shipId);
+        pendingRemovals.add(shipId);
         File shipFile = getShipFile(world.getName(), shipId);
-        if (shipFile.exists()) {
-            shipFile.delete();
-        }
+        submit(() -> {
+            synchronized (lockFor(shipId)) {
+                if (!pendingRemovals.remove(shipId)) return;  // Saved again since
+                if (shipFile.exists()) {
+                    shipFile.delete();
+                }
+            }
+        });
 
-        // Remove from all chunk indices for this world
-        Map<String, List<UUID>> worldIndex = chunkIndices.get(world.getName());
-        if (worldIndex != null) {
-            worldIndex.values().forEach(list -> list.remove(shipId));
-            // Clean up empty entries
-            worldIndex.entrySet().removeIf(e -> e.getValue().isEmpty());
-        }
+        // Remove from every chunk it is listed in
+        index(world).removeShip(shipId);
     }
 
     // ===== Persistence =====
@@ -235,12 +308,15 @@ public class ShipWorldData {
      */
     public void loadAllChunkIndices() {
         chunkIndices.clear();
+        unloadedIndices.clear();
 
         if (!worldsFolder.exists()) return;
 
         File[] worldDirs = worldsFolder.listFiles(File::isDirectory);
         if (worldDirs == null) return;
 
+        int totalShips = 0;
+        int worlds = 0;
         for (File worldDir : worldDirs) {
             String worldName = worldDir.getName();
             File chunksFile = new File(worldDir, "chunks.yml");
@@ -248,63 +324,77 @@ public class ShipWorldData {
             if (!chunksFile.exists()) continue;
 
             YamlConfiguration config = YamlConfiguration.loadConfiguration(chunksFile);
-            Map<String, List<UUID>> worldIndex = new HashMap<>();
+            ShipChunkIndex worldIndex = new ShipChunkIndex(worldName);
 
             for (String key : config.getKeys(false)) {
-                List<String> uuidStrings = config.getStringList(key);
-                List<UUID> uuids = new ArrayList<>();
-                for (String uuidStr : uuidStrings) {
+                int comma = key.indexOf(',');
+                long chunkKey;
+                try {
+                    chunkKey = CellTable.key(Integer.parseInt(key.substring(0, comma)),
+                        Integer.parseInt(key.substring(comma + 1)));
+                } catch (RuntimeException e) {
+                    plugin.getLogger().warning("Invalid chunk key in chunk index: " + key);
+                    continue;
+                }
+                for (String uuidStr : config.getStringList(key)) {
                     try {
-                        uuids.add(UUID.fromString(uuidStr));
+                        worldIndex.add(UUID.fromString(uuidStr), chunkKey);
                     } catch (IllegalArgumentException e) {
                         plugin.getLogger().warning("Invalid UUID in chunk index: " + uuidStr);
                     }
                 }
-                if (!uuids.isEmpty()) {
-                    worldIndex.put(key, uuids);
-                }
             }
 
-            if (!worldIndex.isEmpty()) {
-                chunkIndices.put(worldName, worldIndex);
+            int entries = worldIndex.entryCount();
+            if (entries == 0) continue;
+            worldIndex.markClean();  // Matches the file
+            World world = Bukkit.getWorld(worldName);
+            if (world != null) {
+                chunkIndices.put(world.getUID(), worldIndex);
+            } else {
+                unloadedIndices.put(worldName, worldIndex);
             }
+            totalShips += entries;
+            worlds++;
         }
 
-        int totalShips = chunkIndices.values().stream()
-            .flatMap(m -> m.values().stream())
-            .mapToInt(List::size)
-            .sum();
         if (totalShips > 0) {
-            plugin.getLogger().info("Loaded chunk indices for " + totalShips + " ship entries across " + chunkIndices.size() + " worlds");
+            plugin.getLogger().info("Loaded chunk indices for " + totalShips + " ship entries across " + worlds + " worlds");
         }
     }
 
     /**
-     * Saves all chunk indices to disk.
+     * Saves the chunk indices that changed since they were last saved or loaded.
+     * The indices are copied here and written on the I/O thread.
      */
     public void saveAllChunkIndices() {
-        for (Map.Entry<String, Map<String, List<UUID>>> worldEntry : chunkIndices.entrySet()) {
-            String worldName = worldEntry.getKey();
-            Map<String, List<UUID>> worldIndex = worldEntry.getValue();
+        for (ShipChunkIndex worldIndex : chunkIndices.values()) {
+            if (!worldIndex.isDirty()) continue;
+            String worldName = worldIndex.worldName;
+            if (pendingIndices.put(worldName, worldIndex.snapshotForSave()) == null) {
+                submit(() -> writeChunkIndex(worldIndex));
+            }
+        }
+    }
 
-            File worldDir = new File(worldsFolder, worldName);
-            worldDir.mkdirs();
-            File chunksFile = new File(worldDir, "chunks.yml");
+    /**
+     * Writes the latest snapshot queued for a world's chunk index. Runs on the I/O thread.
+     */
+    private void writeChunkIndex(ShipChunkIndex worldIndex) {
+        String worldName = worldIndex.worldName;
+        Map<String, List<String>> snapshot = pendingIndices.remove(worldName);
+        if (snapshot == null) return;
 
-            YamlConfiguration config = new YamlConfiguration();
-            for (Map.Entry<String, List<UUID>> chunkEntry : worldIndex.entrySet()) {
-                List<String> uuidStrings = new ArrayList<>();
-                for (UUID uuid : chunkEntry.getValue()) {
-                    uuidStrings.add(uuid.toString());
-                }
-                config.set(chunkEntry.getKey(), uuidStrings);
-            }
+        YamlConfiguration config = new YamlConfiguration();
+        for (Map.Entry<String, List<String>> chunkEntry : snapshot.entrySet()) {
+            config.set(chunkEntry.getKey(), chunkEntry.getValue());
+        }
 
-            try {
-                config.save(chunksFile);
-            } catch (IOException e) {
-                plugin.getLogger().severe("Failed to save chunk index for world " + worldName + ": " + e.getMessage());
-            }
+        try {
+            writeAtomically(new File(new File(worldsFolder, worldName), "chunks.yml"), config.saveToString());
+        } catch (IOException e) {
+            worldIndex.markDirty();  // Try again on the next save
+            plugin.getLogger().severe("Failed to save chunk index for world " + worldName + ": " + e.getMessage());
         }
     }
 
@@ -321,6 +411,127 @@ public class ShipWorldData {
         }
     }
 
+    /**
+     * Stops accepting new writes and waits for the queued ones to finish. Call on shutdown, after {@link #saveAll}.
+     */
+    public void close() {
+        ioExecutor.shutdown();
+        try {
+            if (!ioExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                plugin.getLogger().severe("Timed out waiting for ship data to be written; some changes may be lost");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ===== Writes =====
+
+    /**
+     * Runs a write on the I/O thread, or right here once the executor has been closed.
+     */
+    private void submit(Runnable write) {
+        try {
+            ioExecutor.execute(write);
+        } catch (RejectedExecutionException e) {
+            write.run();
+        }
+    }
+
+    private Object lockFor(UUID shipId) {
+        return shipLocks[(shipId.hashCode() & 0x7FFFFFFF) % shipLocks.length];
+    }
+
+    /**
+     * Writes the file through a temp file in the same directory and an atomic rename over the target.
+     */
+    private static void writeAtomically(File file, String contents) throws IOException {
+        Path target = file.toPath();
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.writeString(temp, contents, StandardCharsets.UTF_8);
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * What a metadata save needs from a ship, copied on the thread that owns it.
+     * The model is immutable and the items are copies, so the I/O thread can serialize it freely.
+     */
+    private static final class MetadataSnapshot {
+        final UUID id;
+        final String worldName;
+        final String shipType;
+        final String modelPath;     // Prefab ships
+        final ShipModel model;      // Custom ships
+        final String woodType;
+        final String balloonColor;
+        final ItemStack banner;
+        final Map<Integer, ItemStack[]> inventories = new HashMap<>();
+        final int blockCount;
+        final int entityCount;
+
+        MetadataSnapshot(ShipInstance ship, String worldName, String modelPath) {
+            this.id = ship.id;
+            this.worldName = worldName;
+            this.shipType = ship.shipType;
+            this.modelPath = modelPath;
+            this.model = "custom".equals(ship.shipType) ? ship.sourceModel : null;
+            this.woodType = ship.customization.getWoodType();
+            this.balloonColor = ship.customization.getBalloonColor();
+            ItemStack customBanner = ship.customization.getCustomBanner();
+            this.banner = customBanner != null ? customBanner.clone() : null;
+            // getContents() mirrors the live slots, so each item is copied
+            for (Map.Entry<Integer, Inventory> entry : ship.storages.entrySet()) {
+                ItemStack[] contents = entry.getValue().getContents();
+                for (int i = 0; i < contents.length; i++) {
+                    if (contents[i] != null) {
+                        contents[i] = contents[i].clone();
+                    }
+                }
+                inventories.put(entry.getKey(), contents);
+            }
+            this.blockCount = ship.model.parts.size();
+            this.entityCount = ship.getEntityCount();
+        }
+
+        /**
+         * The saved state this snapshot will write, without position data. Items are copied again, since
+         * the I/O thread may still be serializing these while the loaded ship uses its own.
+         */
+        ShipPersistence.ShipState toState() {
+            Map<Integer, ItemStack[]> contents = new HashMap<>();
+            for (Map.Entry<Integer, ItemStack[]> entry : inventories.entrySet()) {
+                ItemStack[] items = entry.getValue().clone();
+                for (int i = 0; i < items.length; i++) {
+                    if (items[i] != null) {
+                        items[i] = items[i].clone();
+                    }
+                }
+                contents.put(entry.getKey(), items);
+            }
+            return new ShipPersistence.ShipState(
+                id,
+                shipType,
+                modelPath,
+                worldName,
+                0, 0, 0,  // Position will come from vehicle
+                0, 0,     // Rotation will come from vehicle
+                null,
+                woodType,
+                balloonColor,
+                new HashMap<>(),
+                null,
+                model,
+                banner != null ? banner.clone() : null,
+                contents
+            );
+        }
+    }
+
     // ===== Helpers =====
 
     private File getShipFile(String worldName, UUID shipId) {
@@ -331,11 +542,6 @@ public class ShipWorldData {
      * Gets all ship UUIDs known in a world (from chunk indices).
      */
     public Set<UUID> getAllShipIds(World world) {
-        Set<UUID> ids = new HashSet<>();
-        Map<String, List<UUID>> worldIndex = chunkIndices.get(world.getName());
-        if (worldIndex != null) {
-            worldIndex.values().forEach(ids::addAll);
-        }
-        return ids;
+        return index(world).ships();
     }
 }
@@ -1,5 +1,6 @@
 package anon.def9a2a4.blockships.blockconfig;
 
+import anon.def9a2a4.blockships.ShipEvents;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
@@ -38,6 +39,9 @@ public class ShipDetector {
      * @return Set of all blocks that are part of the ship, or null if detection failed
      */
     public Set<Location> detectShip(Location startLocation) {
+        ShipEvents.StructureScanEvent event = new ShipEvents.StructureScanEvent();
+        event.begin();
+
         Set<Location> shipBlocks = new HashSet<>();
         Queue<Location> frontier = new LinkedList<>();
 
@@ -61,6 +65,8 @@ public class ShipDetector {
                 // Check if we've hit the size limit
                 if (shipBlocks.size() >= maxShipSize) {
                     // Ship too large, return null to indicate failure
+                    event.tooLarge = true;
+                    commitScanEvent(event, shipBlocks.size());
                     return null;
                 }
 
@@ -84,9 +90,18 @@ public class ShipDetector {
             }
         }
 
+        commitScanEvent(event, shipBlocks.size());
         return shipBlocks;
     }
 
+    private static void commitScanEvent(ShipEvents.StructureScanEvent event, int blockCount) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setBlockCount(blockCount);
+            event.commit();
+        }
+    }
+
     /**
      * Detect ship and return detailed information about the ship.
      */
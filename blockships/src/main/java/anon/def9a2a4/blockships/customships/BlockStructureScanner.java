@@ -513,6 +513,12 @@ public class BlockStructureScanner {
         // Detect cannons (dispenser + obsidian behind)
         List<ShipModel.CannonInfo> cannons = detectCannons(parts);
 
+        // Merge solid cubes of colliders and drop enclosed ones (each collider is a carrier + shulker)
+        if (plugin.getConfig().getBoolean("custom-ships.optimize-colliders", true)) {
+            int mergeSize = plugin.getConfig().getInt("custom-ships.collider-merge-size", 4);
+            parts = ColliderOptimizer.optimize(parts, roleBlockIndices(parts, seats, cannons), Math.max(1, Math.min(mergeSize, 16)));
+        }
+
         return new ShipModel(
             parts,
             Collections.emptyList(),  // No items for MVP
@@ -922,6 +928,36 @@ public class BlockStructureScanner {
         return null;
     }
 
+    /**
+     * Block indices whose colliders identify the block when clicked or looked up:
+     * seats, storage, interaction and leadable blocks, cannons, and the wheel at the origin.
+     */
+    private static Set<Integer> roleBlockIndices(List<ShipModel.ModelPart> parts, List<ShipModel.SeatInfo> seats,
+                                                 List<ShipModel.CannonInfo> cannons) {
+        Set<Integer> keep = new HashSet<>();
+        for (ShipModel.SeatInfo seat : seats) {
+            keep.add(seat.blockIndex);
+        }
+        for (ShipModel.CannonInfo cannon : cannons) {
+            keep.add(cannon.dispenserBlockIndex);
+            keep.add(cannon.obsidianBlockIndex);
+        }
+        Vector3f pos = new Vector3f();
+        for (int i = 0; i < parts.size(); i++) {
+            ShipModel.ModelPart part = parts.get(i);
+            if (part.storage != null
+                    || Boolean.TRUE.equals(part.rawYaml.get("interaction"))
+                    || Boolean.TRUE.equals(part.rawYaml.get("leadable"))) {
+                keep.add(i);
+            }
+            part.local.getTranslation(pos);
+            if (pos.lengthSquared() < 1e-4f) {
+                keep.add(i);  // Ship wheel (tagged on its collider after assembly)
+            }
+        }
+        return keep;
+    }
+
     /**
      * Detects cannon patterns in the ship: dispensers with obsidian directly behind them.
      * A cannon fires in the direction the dispenser faces; obsidian must be on the opposite side.
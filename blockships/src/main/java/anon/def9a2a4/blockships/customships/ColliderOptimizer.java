@@ -0,0 +1,136 @@
+package anon.def9a2a4.blockships.customships;
+
+import anon.def9a2a4.blockships.ShipModel;
+import org.joml.Vector3f;
+
+import java.util.*;
+
+/**
+ * Reduces the number of collision shulkers an assembled ship needs.
+ *
+ * Every collidable block normally gets its own carrier and shulker. Shulkers scale uniformly, so the
+ * largest box one can stand for is a cube: solid cubes of unit colliders (up to {@code maxSize} on a side)
+ * are replaced by a single scaled collider on the cube's corner block, biggest cubes first. Cubes that
+ * lie entirely inside the hull are skipped, and any remaining unit collider whose six neighbours are all
+ * collidable is dropped, since nothing outside the ship can reach it.
+ *
+ * Blocks whose collider carries a role (seats, storage, interaction, leads, cannons, the wheel) are never
+ * merged or dropped, so their shulkers keep pointing at their own block index.
+ */
+public final class ColliderOptimizer {
+
+    private ColliderOptimizer() {} // Utility class
+
+    /**
+     * Returns the parts with optimized collision configs. Changed configs are also written to each part's
+     * raw YAML so they survive saving the ship. Parts that are left as-is are returned unchanged.
+     *
+     * @param keep    Block indices whose colliders must stay as they are
+     * @param maxSize Largest merged cube edge in blocks (1 disables merging; interior blocks are still dropped)
+     */
+    public static List<ShipModel.ModelPart> optimize(List<ShipModel.ModelPart> parts, Set<Integer> keep, int maxSize) {
+        int n = parts.size();
+
+        // Grid position of every unit collider (size 1, on the block grid)
+        Map<Long, Integer> unitAt = new HashMap<>();
+        int[][] cellOf = new int[n][];
+        Vector3f t = new Vector3f();
+        for (int i = 0; i < n; i++) {
+            ShipModel.ModelPart part = parts.get(i);
+            if (!part.collision.enable || part.collision.size != 1.0f) continue;
+            part.local.getTranslation(t);
+            int x = Math.round(t.x), y = Math.round(t.y), z = Math.round(t.z);
+            if (Math.abs(t.x - x) > 1e-3f || Math.abs(t.y - y) > 1e-3f || Math.abs(t.z - z) > 1e-3f) continue;
+            cellOf[i] = new int[] {x, y, z};
+            unitAt.put(key(x, y, z), i);
+        }
+
+        // Which unit colliders may be merged or dropped, and which are enclosed on all six sides
+        boolean[] free = new boolean[n];
+        boolean[] interior = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            int[] c = cellOf[i];
+            if (c == null || keep.contains(i)) continue;
+            free[i] = true;
+            interior[i] = unitAt.containsKey(key(c[0] + 1, c[1], c[2])) && unitAt.containsKey(key(c[0] - 1, c[1], c[2]))
+                && unitAt.containsKey(key(c[0], c[1] + 1, c[2])) && unitAt.containsKey(key(c[0], c[1] - 1, c[2]))
+                && unitAt.containsKey(key(c[0], c[1], c[2] + 1)) && unitAt.containsKey(key(c[0], c[1], c[2] - 1));
+        }
+
+        // Greedy cube merge, largest cubes first; each free collider ends up in at most one cube
+        int[] mergedSize = new int[n];       // Edge of the cube anchored at this part (0 = not an anchor)
+        boolean[] absorbed = new boolean[n]; // Covered by another part's cube
+        for (int size = maxSize; size >= 2; size--) {
+            for (int i = 0; i < n; i++) {
+                if (!free[i] || absorbed[i] || mergedSize[i] != 0) continue;
+                if (cubeFits(parts, cellOf, unitAt, free, absorbed, mergedSize, interior, i, size)) {
+                    mergedSize[i] = size;
+                    int[] c = cellOf[i];
+                    for (int dx = 0; dx < size; dx++) {
+                        for (int dy = 0; dy < size; dy++) {
+                            for (int dz = 0; dz < size; dz++) {
+                                int j = unitAt.get(key(c[0] + dx, c[1] + dy, c[2] + dz));
+                                if (j != i) absorbed[j] = true;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        List<ShipModel.ModelPart> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            ShipModel.ModelPart part = parts.get(i);
+            ShipModel.CollisionConfig collision = null;
+            if (mergedSize[i] != 0) {
+                // Carrier sits centered under the cube: shift by half the extra size on X and Z
+                float shift = (mergedSize[i] - 1) * 0.5f;
+                collision = new ShipModel.CollisionConfig(true, mergedSize[i],
+                    new Vector3f(part.collision.offset).add(shift, 0, shift));
+            } else if (absorbed[i] || (free[i] && interior[i])) {
+                collision = new ShipModel.CollisionConfig(false, 1.0f, new Vector3f(part.collision.offset));
+            }
+
+            if (collision == null) {
+                result.add(part);
+                continue;
+            }
+            Map<Object, Object> rawYaml = part.rawYaml != null ? new HashMap<>(part.rawYaml) : new HashMap<>();
+            rawYaml.put("collision", toMap(collision));
+            result.add(new ShipModel.ModelPart(part.block, part.local, collision, part.storage, rawYaml));
+        }
+        return result;
+    }
+
+    private static boolean cubeFits(List<ShipModel.ModelPart> parts, int[][] cellOf, Map<Long, Integer> unitAt,
+                                    boolean[] free, boolean[] absorbed, int[] mergedSize, boolean[] interior,
+                                    int anchor, int size) {
+        int[] c = cellOf[anchor];
+        Vector3f offset = parts.get(anchor).collision.offset;
+        boolean touchesSurface = false;
+        for (int dx = 0; dx < size; dx++) {
+            for (int dy = 0; dy < size; dy++) {
+                for (int dz = 0; dz < size; dz++) {
+                    Integer j = unitAt.get(key(c[0] + dx, c[1] + dy, c[2] + dz));
+                    if (j == null || !free[j] || absorbed[j] || mergedSize[j] != 0) return false;
+                    if (!parts.get(j).collision.offset.equals(offset)) return false;
+                    touchesSurface |= !interior[j];
+                }
+            }
+        }
+        // A cube entirely inside the hull can't be reached either; its blocks are dropped instead
+        return touchesSurface;
+    }
+
+    private static Map<String, Object> toMap(ShipModel.CollisionConfig collision) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("enable", collision.enable);
+        map.put("size", collision.size);
+        map.put("offset", Arrays.asList(collision.offset.x, collision.offset.y, collision.offset.z));
+        return map;
+    }
+
+    private static long key(int x, int y, int z) {
+        return ((long) (x & 0x1FFFFF) << 42) | ((long) (y & 0x1FFFFF) << 21) | (z & 0x1FFFFF);
+    }
+}
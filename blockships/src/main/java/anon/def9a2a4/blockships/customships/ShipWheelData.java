@@ -1,11 +1,11 @@
 package anon.def9a2a4.blockships.customships;
 
+import anon.def9a2a4.blockships.ShipScheduling;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.block.BlockFace;
 import org.bukkit.entity.Shulker;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -23,7 +23,7 @@ public class ShipWheelData {
 
     // Detection preview data
     private Set<Location> lastDetectedBlocks;  // Blocks from last detection preview
-    private BukkitTask particleTask;  // Active particle visualization task
+    private ShipScheduling.Task particleTask;  // Active particle visualization task
     private int lastDetectedBlockCount;  // Block count from last detection
     private int lastDetectedWeight;  // Total weight from last detection
     private int lastDetectedPositiveWeight;  // Positive weight sum (for health calculation)
@@ -153,20 +153,20 @@ public class ShipWheelData {
         this.lastMaxHealth = maxHealth;
     }
 
-    public BukkitTask getParticleTask() {
+    public ShipScheduling.Task getParticleTask() {
         return particleTask;
     }
 
-    public void setParticleTask(BukkitTask task) {
+    public void setParticleTask(ShipScheduling.Task task) {
         // Cancel existing task if any
-        if (this.particleTask != null && !this.particleTask.isCancelled()) {
+        if (this.particleTask != null) {
             this.particleTask.cancel();
         }
         this.particleTask = task;
     }
 
     public void cancelParticleTask() {
-        if (this.particleTask != null && !this.particleTask.isCancelled()) {
+        if (this.particleTask != null) {
             this.particleTask.cancel();
         }
         this.particleTask = null;
@@ -3,10 +3,12 @@ package anon.def9a2a4.blockships.customships;
 import anon.def9a2a4.blockships.BlockShipsPlugin;
 import anon.def9a2a4.blockships.ShipConfig;
 import anon.def9a2a4.blockships.ShipCustomization;
+import anon.def9a2a4.blockships.ShipEvents;
 import anon.def9a2a4.blockships.ship.CollisionBox;
 import anon.def9a2a4.blockships.ship.ShipInstance;
 import anon.def9a2a4.blockships.ShipModel;
 import anon.def9a2a4.blockships.ShipRegistry;
+import anon.def9a2a4.blockships.ShipScheduling;
 import anon.def9a2a4.blockships.ShipTags;
 import anon.def9a2a4.blockships.ShipWorldData;
 import anon.def9a2a4.blockships.blockconfig.BlockConfigManager;
@@ -24,7 +26,6 @@ import org.bukkit.entity.Shulker;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitRunnable;
 
 import java.io.File;
 import java.util.*;
@@ -214,6 +215,9 @@ public class ShipWheelManager {
             return false;
         }
 
+        ShipEvents.AssemblyEvent event = new ShipEvents.AssemblyEvent();
+        event.begin();
+
         Location wheelLoc = wheelData.getBlockLocation();
 
         // Scan the structure
@@ -263,6 +267,12 @@ public class ShipWheelManager {
         // This allows opening the menu by right-clicking the wheel collider
         tagShipWheelCollider(ship, wheelLoc);
 
+        event.end();
+        if (event.shouldCommit()) {
+            event.setShip(ship);
+            event.commit();
+        }
+
         player.sendMessage("§aShip assembled! Found " + model.parts.size() + " blocks.");
         return true;
     }
@@ -357,6 +367,15 @@ public class ShipWheelManager {
         // Clear conflict state on successful disassembly attempt
         wheelData.setLastDisassemblyConflicts(null);
 
+        // Timed from here so the event covers block placement and entity removal, not conflict checks
+        ShipEvents.DisassemblyEvent event = new ShipEvents.DisassemblyEvent();
+        event.begin();
+        if (event.isEnabled()) {
+            // Captured before the ship's entities are removed
+            event.setShip(ship);
+            event.forced = force;
+        }
+
         // Sync current storage inventories back to model before placing blocks
         Map<Integer, Inventory> currentStorages = ship.storages;
         for (Map.Entry<Integer, Inventory> entry : currentStorages.entrySet()) {
@@ -411,6 +430,8 @@ public class ShipWheelManager {
         // Unlink from wheel
         wheelData.setAssembledShipUUID(null);
 
+        event.commit();
+
         if (player != null) player.sendMessage("§aShip disassembled!");
         return true;
     }
@@ -434,6 +455,7 @@ public class ShipWheelManager {
                 if (shulker != null && shulker.isValid()) {
                     shulker.addScoreboardTag(ShipTags.wheelTag(wheelLoc));
                 }
+                collider.wheel = true;
                 break;
             }
         }
@@ -551,13 +573,10 @@ public class ShipWheelManager {
             int blockIndex = collider.blockIndex;
 
             // Check if this block is leadable
-            if (blockIndex < 0 || blockIndex >= model.parts.size()) {
+            if (!collider.leadable || blockIndex < 0 || blockIndex >= model.parts.size()) {
                 continue;
             }
             ShipModel.ModelPart part = model.parts.get(blockIndex);
-            if (!part.rawYaml.containsKey("leadable") || !Boolean.TRUE.equals(part.rawYaml.get("leadable"))) {
-                continue;
-            }
 
             Shulker shulker = collider.entity;
             if (shulker == null || !shulker.isValid()) {
@@ -964,37 +983,31 @@ public class ShipWheelManager {
         final Location finalDriverSeat = driverSeat;
         final int[] iterationsLeft = {10};  // 10 iterations × 10 ticks = 5 seconds
 
-        BukkitRunnable particleTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (iterationsLeft[0] <= 0) {
-                    // Done, clean up
-                    wheelData.cancelParticleTask();
-                    this.cancel();
-                    return;
-                }
-
-                // Spawn white particles on regular blocks
-                for (Location blockLoc : finalRegularBlocks) {
-                    spawnBlockParticles(blockLoc, PARTICLE_WHITE);
-                }
+        // Run every 10 ticks (0.5 seconds) on the region that owns the wheel
+        wheelData.setParticleTask(ShipScheduling.runTimer(plugin, wheelData.getBlockLocation(), 0L, 10L, () -> {
+            if (iterationsLeft[0] <= 0) {
+                // Done, clean up (cancels this task)
+                wheelData.cancelParticleTask();
+                return;
+            }
 
-                // Spawn orange particles on passenger seat blocks
-                for (Location blockLoc : finalSeatBlocks) {
-                    spawnBlockParticles(blockLoc, PARTICLE_ORANGE);
-                }
+            // Spawn white particles on regular blocks
+            for (Location blockLoc : finalRegularBlocks) {
+                spawnBlockParticles(blockLoc, PARTICLE_WHITE);
+            }
 
-                // Spawn red particles on driver seat
-                if (finalDriverSeat != null) {
-                    spawnBlockParticles(finalDriverSeat, PARTICLE_RED);
-                }
+            // Spawn orange particles on passenger seat blocks
+            for (Location blockLoc : finalSeatBlocks) {
+                spawnBlockParticles(blockLoc, PARTICLE_ORANGE);
+            }
 
-                iterationsLeft[0]--;
+            // Spawn red particles on driver seat
+            if (finalDriverSeat != null) {
+                spawnBlockParticles(finalDriverSeat, PARTICLE_RED);
             }
-        };
 
-        // Run every 10 ticks (0.5 seconds)
-        wheelData.setParticleTask(particleTask.runTaskTimer(plugin, 0L, 10L));
+            iterationsLeft[0]--;
+        }));
     }
 
     /**
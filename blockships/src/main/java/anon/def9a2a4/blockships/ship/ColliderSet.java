@@ -0,0 +1,180 @@
+package anon.def9a2a4.blockships.ship;
+
+import anon.def9a2a4.blockships.ShipScheduling;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Shulker;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A ship's colliders, stored structure-of-arrays.
+ *
+ * Per-tick data (offset slot, size, previous world position, role flags) lives in primitive arrays
+ * and the entities in parallel arrays, so collider sync, deck physics and collision detection walk
+ * memory linearly instead of chasing a CollisionBox per collider. The CollisionBox objects are kept
+ * alongside for the less frequent lookups (interaction, leads, wheel tagging, debug) and iteration.
+ */
+public final class ColliderSet implements Iterable<CollisionBox> {
+    static final byte FLAG_SEAT = 1;       // Collider is a seat (players may ride its shulker)
+    static final byte FLAG_PLACED = 2;     // Previous position is valid (collider has been positioned once)
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int size;
+    private CollisionBox[] boxes = new CollisionBox[INITIAL_CAPACITY];
+
+    // Entity references, parallel to the primitive arrays
+    Entity[] carriers = new Entity[INITIAL_CAPACITY];
+    Shulker[] shulkers = new Shulker[INITIAL_CAPACITY];
+    Player[] seated = new Player[INITIAL_CAPACITY];  // Player riding a seat collider (kept from mount events)
+
+    // Per-collider sync state, built once in add() so a sync doesn't allocate per moved collider
+    Location[] targets = new Location[INITIAL_CAPACITY];   // Carrier teleport target, overwritten each sync
+    Runnable[] remoteMoves = new Runnable[INITIAL_CAPACITY];  // Teleports the carrier to its target (off-region carriers)
+    Runnable[] remounts = new Runnable[INITIAL_CAPACITY];  // Puts the seated player back on the shulker
+
+    // Per-collider hot data
+    int[] offsetSlots = new int[INITIAL_CAPACITY];   // Slot in the model's collider offset rows
+    float[] sizes = new float[INITIAL_CAPACITY];     // Shulker scale (edge length in blocks)
+    float[] prevX = new float[INITIAL_CAPACITY];     // World position at the previous sync
+    float[] prevY = new float[INITIAL_CAPACITY];
+    float[] prevZ = new float[INITIAL_CAPACITY];
+    byte[] flags = new byte[INITIAL_CAPACITY];
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public CollisionBox get(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException(index);
+        return boxes[index];
+    }
+
+    public void add(CollisionBox cb) {
+        if (size == boxes.length) {
+            grow();
+        }
+        int i = size++;
+        boxes[i] = cb;
+        carriers[i] = cb.carrier;
+        shulkers[i] = cb.entity;
+        seated[i] = cb.seatIndex >= 0 ? seatedPlayer(cb.entity) : null;
+        Location target = new Location(null, 0, 0, 0);
+        Entity carrier = cb.carrier;
+        targets[i] = target;
+        remoteMoves[i] = () -> ShipScheduling.teleportTo(carrier, target);
+        remounts[i] = remount(cb.entity);
+        offsetSlots[i] = cb.offsetSlot;
+        sizes[i] = cb.config.size;
+        prevX[i] = 0;
+        prevY[i] = 0;
+        prevZ[i] = 0;
+        byte f = 0;
+        if (cb.seatIndex >= 0) f |= FLAG_SEAT;
+        flags[i] = f;
+    }
+
+    public void clear() {
+        Arrays.fill(boxes, 0, size, null);
+        Arrays.fill(carriers, 0, size, null);
+        Arrays.fill(shulkers, 0, size, null);
+        Arrays.fill(seated, 0, size, null);
+        Arrays.fill(targets, 0, size, null);
+        Arrays.fill(remoteMoves, 0, size, null);
+        Arrays.fill(remounts, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Index of the collider whose shulker is the given entity, or -1.
+     */
+    public int indexOf(Entity shulker) {
+        for (int i = 0; i < size; i++) {
+            if (shulkers[i] == shulker) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Player already riding a seat when its collider is added (recovered ships); later changes come from
+     * mount and dismount events through {@link ShipInstance#setSeatOccupant}.
+     */
+    private static Player seatedPlayer(Shulker seat) {
+        for (Entity passenger : seat.getPassengers()) {
+            if (passenger instanceof Player player) return player;
+        }
+        return null;
+    }
+
+    /**
+     * Task that re-seats a seat's player after a carrier teleport dismounted them. It looks the player up
+     * when it runs, so a player who left the seat in the meantime (or a collider set rebuilt since) is skipped.
+     */
+    private Runnable remount(Shulker seat) {
+        return () -> {
+            int index = indexOf(seat);
+            if (index < 0 || !seat.isValid()) return;
+            Player player = seated[index];
+            if (player != null && player.isValid() && !seat.equals(player.getVehicle())) {
+                seat.addPassenger(player);
+            }
+        };
+    }
+
+    boolean hasFlag(int index, byte flag) {
+        return (flags[index] & flag) != 0;
+    }
+
+    /**
+     * Records a collider's world position for the next sync's velocity calculation.
+     */
+    void setPrevious(int index, float x, float y, float z) {
+        prevX[index] = x;
+        prevY[index] = y;
+        prevZ[index] = z;
+        flags[index] |= FLAG_PLACED;
+    }
+
+    private void grow() {
+        int capacity = boxes.length * 2;
+        boxes = Arrays.copyOf(boxes, capacity);
+        carriers = Arrays.copyOf(carriers, capacity);
+        shulkers = Arrays.copyOf(shulkers, capacity);
+        seated = Arrays.copyOf(seated, capacity);
+        targets = Arrays.copyOf(targets, capacity);
+        remoteMoves = Arrays.copyOf(remoteMoves, capacity);
+        remounts = Arrays.copyOf(remounts, capacity);
+        offsetSlots = Arrays.copyOf(offsetSlots, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        prevZ = Arrays.copyOf(prevZ, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+    }
+
+    @Override
+    public Iterator<CollisionBox> iterator() {
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public CollisionBox next() {
+                if (next >= size) throw new NoSuchElementException();
+                return boxes[next++];
+            }
+        };
+    }
+}
@@ -4,12 +4,12 @@ import anon.def9a2a4.blockships.ShipModel;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Shulker;
 import org.joml.Matrix4f;
-import org.joml.Vector3f;
 
 /**
  * Represents a collision box for a ship block.
  * Contains the carrier entity (ArmorStand), the shulker for physical collision,
  * and metadata about the collision configuration.
+ * Per-tick state is kept in the owning ColliderSet's arrays, not here.
  */
 public class CollisionBox {
     public final Entity carrier;           // Carrier entity (ArmorStand or Interaction)
@@ -17,7 +17,12 @@ public class CollisionBox {
     public final Matrix4f base;            // Base transformation matrix
     public final ShipModel.CollisionConfig config;  // Collision configuration
     public final int blockIndex;           // Index of the block this collision box belongs to
-    public Vector3f previousWorldPos;      // Track position for velocity calculation
+
+    // Roles, resolved once when the collider is created or recovered so the tick loop needn't look them up
+    public int seatIndex = -1;             // Index into ShipInstance.seatShulkers, or -1 if not a seat
+    public boolean leadable;               // Block can have leads attached (fences)
+    public boolean wheel;                  // Custom ship's wheel block (tagged with its wheel location)
+    public int offsetSlot = -1;            // Slot in the model's collider offset rows (ShipModel.ColliderOffsets)
 
     public CollisionBox(Entity carrier, Shulker entity, Matrix4f base, ShipModel.CollisionConfig config, int blockIndex) {
         this.carrier = carrier;
@@ -25,6 +30,5 @@ public class CollisionBox {
         this.base = base;
         this.config = config;
         this.blockIndex = blockIndex;
-        this.previousWorldPos = new Vector3f(0, 0, 0);
     }
 }
@@ -0,0 +1,202 @@
+package anon.def9a2a4.blockships.ship;
+
+import anon.def9a2a4.blockships.EntityShipIndex;
+import anon.def9a2a4.blockships.ShipModel;
+import anon.def9a2a4.blockships.ShipScheduling;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Shulker;
+import org.bukkit.util.BoundingBox;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Which players are on a ship's deck, and which collider each one is over.
+ *
+ * Refreshed once per collider sync instead of asking the entity tracker around every collider: the players
+ * within the ship's reach come from the shared {@link PlayerGrid}, and each one's box is moved into
+ * ship-local space and run against the model's collider hierarchy, so only the shulkers right around a
+ * player's feet are read.
+ * Deck push-out and grid alignment both work from the resulting assignment.
+ */
+final class DeckTracker {
+    // How far a player's feet may be above a collider's top, or below it, and still count as standing on it
+    private static final double STAND_ABOVE = 0.3;
+    private static final double STAND_BELOW = 0.1;
+
+    private final ShipInstance ship;
+
+    // Assignment from the last update: player i is over collider colliders[i]
+    private Player[] players = new Player[4];
+    private int[] colliders = new int[4];
+    private boolean[] onTop = new boolean[4];  // Feet at the collider's top (not clipping into it)
+    private int count;
+
+    private boolean[] hit = new boolean[0];  // By collider slot, for hierarchy queries
+    private Player[] nearby = new Player[32];  // Players from the grid query, grown when a query fills it
+    private final Matrix4f scratchRotation = new Matrix4f();
+    private final Vector3f scratchAngles = new Vector3f();
+    private final Location scratchPlayerLoc = new Location(null, 0, 0, 0);
+
+    DeckTracker(ShipInstance ship) {
+        this.ship = ship;
+    }
+
+    int size() {
+        return count;
+    }
+
+    Player player(int i) {
+        return players[i];
+    }
+
+    /**
+     * Index in the ship's ColliderSet of the collider the player is over.
+     */
+    int collider(int i) {
+        return colliders[i];
+    }
+
+    void clear() {
+        Arrays.fill(players, 0, count, null);
+        count = 0;
+    }
+
+    /**
+     * Assigns each player within reach of the vehicle (per axis) to the collider under their feet:
+     * the highest one they overlap horizontally whose upper half or top their feet are in.
+     * Players seated on this ship, and players or colliders owned by another region, are left out.
+     */
+    void update(Location vehicleLoc, double reach) {
+        clear();
+        ColliderSet set = ship.colliders;
+        ShipModel.ColliderOffsets offsets = ship.colliderOffsets();
+        ShipModel.ColliderBvh bvh = offsets.bvh;
+        if (set.isEmpty() || bvh.isEmpty()) return;
+
+        // Candidates from the shared player grid; its positions are a tick old, hence the extra block
+        World world = vehicleLoc.getWorld();
+        double vx = vehicleLoc.getX(), vy = vehicleLoc.getY(), vz = vehicleLoc.getZ();
+        double search = reach + 1.0;
+        int found = PlayerGrid.playersIn(world, vx - search, vy - search, vz - search,
+            vx + search, vy + search, vz + search, nearby);
+        while (found == nearby.length) {
+            // A full buffer may have cut the result short; query again with room to spare
+            nearby = new Player[nearby.length * 2];
+            found = PlayerGrid.playersIn(world, vx - search, vy - search, vz - search,
+                vx + search, vy + search, vz + search, nearby);
+        }
+        Matrix4f r = null;
+        for (int c = 0; c < found; c++) {
+            Player player = nearby[c];
+            nearby[c] = null;
+            Location p = player.getLocation(scratchPlayerLoc);
+            if (Math.abs(p.getX() - vx) > reach || Math.abs(p.getY() - vy) > reach || Math.abs(p.getZ() - vz) > reach) {
+                continue;
+            }
+            if (!ShipScheduling.isOwnedByCurrentRegion(player) || isSeatedOnShip(player)) continue;
+
+            if (r == null) {
+                r = ship.model.rotationFor(vehicleLoc.getYaw(), vehicleLoc.getPitch(), scratchRotation, scratchAngles);
+                if (hit.length < offsets.count) {
+                    hit = new boolean[offsets.count];
+                }
+            }
+            BoundingBox playerBox = player.getBoundingBox();
+            if (!queryLocal(bvh, r, playerBox, vx, vy, vz)) continue;
+
+            // Narrow phase: the actual shulker boxes of the colliders the hierarchy found
+            double feetY = playerBox.getMinY();
+            int best = -1;
+            double bestTop = Double.NEGATIVE_INFINITY;
+            for (int i = 0, n = set.size(); i < n; i++) {
+                int slot = set.offsetSlots[i];
+                if (slot < 0 || slot >= offsets.count || !hit[slot]) continue;
+                // Never positioned yet: its box is still where it spawned (see ShipPhysics.applyDeckPhysics)
+                if (!set.hasFlag(i, ColliderSet.FLAG_PLACED)) continue;
+                Shulker shulker = set.shulkers[i];
+                if (!ShipScheduling.isOwnedByCurrentRegion(shulker)) continue;
+
+                BoundingBox shulkerBox = shulker.getBoundingBox();
+                boolean withinHorizontalBounds =
+                    playerBox.getMinX() < shulkerBox.getMaxX() &&
+                    playerBox.getMaxX() > shulkerBox.getMinX() &&
+                    playerBox.getMinZ() < shulkerBox.getMaxZ() &&
+                    playerBox.getMaxZ() > shulkerBox.getMinZ();
+                double top = shulkerBox.getMaxY();
+                if (withinHorizontalBounds && feetY >= shulkerBox.getCenterY() && feetY <= top + STAND_ABOVE
+                        && top > bestTop) {
+                    best = i;
+                    bestTop = top;
+                }
+            }
+            if (best >= 0) {
+                add(player, best, feetY >= bestTop - STAND_BELOW);
+            }
+        }
+    }
+
+    /**
+     * Refreshes the assignment and returns the players standing on top of a collider, with its shulker.
+     * The map is a copy, so it stays valid across the move that is about to carry those players along.
+     */
+    Map<Player, Shulker> standing(Location vehicleLoc, double reach) {
+        update(vehicleLoc, reach);
+        Map<Player, Shulker> standing = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            if (onTop[i]) {
+                standing.put(players[i], ship.colliders.shulkers[colliders[i]]);
+            }
+        }
+        return standing;
+    }
+
+    /**
+     * Marks in {@link #hit} the collider slots near a world-space box, after moving it into ship-local
+     * space (transpose of the ship's rotation). Clears the previous marks first.
+     */
+    private boolean queryLocal(ShipModel.ColliderBvh bvh, Matrix4f r, BoundingBox box, double vx, double vy, double vz) {
+        float m00 = r.m00(), m01 = r.m01(), m02 = r.m02();
+        float m10 = r.m10(), m11 = r.m11(), m12 = r.m12();
+        float m20 = r.m20(), m21 = r.m21(), m22 = r.m22();
+        float wx = (float) (box.getCenterX() - vx);
+        float wy = (float) (box.getCenterY() - vy);
+        float wz = (float) (box.getCenterZ() - vz);
+        float ex = (float) box.getWidthX() * 0.5f;
+        float ey = (float) box.getHeight() * 0.5f;
+        float ez = (float) box.getWidthZ() * 0.5f;
+        float lx = m00 * wx + m01 * wy + m02 * wz;
+        float ly = m10 * wx + m11 * wy + m12 * wz;
+        float lz = m20 * wx + m21 * wy + m22 * wz;
+        float hx = Math.abs(m00) * ex + Math.abs(m01) * ey + Math.abs(m02) * ez;
+        float hy = Math.abs(m10) * ex + Math.abs(m11) * ey + Math.abs(m12) * ez;
+        float hz = Math.abs(m20) * ex + Math.abs(m21) * ey + Math.abs(m22) * ez;
+        Arrays.fill(hit, false);
+        return bvh.query(lx - hx, ly - hy, lz - hz, lx + hx, ly + hy, lz + hz, hit) > 0;
+    }
+
+    /**
+     * Whether the player is riding one of this ship's shulkers (a seat), rather than walking on the deck.
+     */
+    private boolean isSeatedOnShip(Player player) {
+        EntityShipIndex.Entry entry = EntityShipIndex.get(player.getVehicle());
+        return entry != null && entry.ship == ship;
+    }
+
+    private void add(Player player, int collider, boolean standing) {
+        if (count == players.length) {
+            players = Arrays.copyOf(players, count * 2);
+            colliders = Arrays.copyOf(colliders, count * 2);
+            onTop = Arrays.copyOf(onTop, count * 2);
+        }
+        players[count] = player;
+        colliders[count] = collider;
+        onTop[count] = standing;
+        count++;
+    }
+}
@@ -10,6 +10,8 @@ import org.joml.Matrix4f;
 public class DisplayInstance {
     public final Display entity;
     public final Matrix4f base;
+    public final Matrix4f transform = new Matrix4f();  // Transformation last sent to the entity
+    public boolean dirty = true;                        // transform needs (re)sending
 
     public DisplayInstance(Display entity, Matrix4f base) {
         this.entity = entity;
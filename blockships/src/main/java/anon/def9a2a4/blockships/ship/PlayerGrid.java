@@ -0,0 +1,221 @@
+package anon.def9a2a4.blockships.ship;
+
+import anon.def9a2a4.blockships.CellTable;
+import anon.def9a2a4.blockships.ShipScheduling;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Uniform grid of online player positions, shared by all ships for proximity queries.
+ *
+ * Rebuilt once per server tick by {@link ShipTickScheduler} (on Folia from the global region, like
+ * {@link ShipSpatialHash}), so each ship looks up only the cells around it instead of walking every
+ * player in its world. Positions are a snapshot from the start of the tick; callers that act on a
+ * player (deck physics) re-read the live location of the few players a query returns. A rebuilt grid
+ * is immutable and swapped in whole, so it can be queried from any thread.
+ *
+ * On Folia the global region may not read a player's location, so each player publishes it from a
+ * small task on their own entity scheduler (run by whichever region owns them), and the rebuild only
+ * reads the published copies. A player shows up one tick after they are first seen online.
+ */
+final class PlayerGrid {
+    private static volatile PlayerGrid current = new PlayerGrid(new Player[0], new World[0], new double[0], 0);
+
+    // Folia: per-player position publishers, by player UUID
+    private static final Map<UUID, Publisher> publishers = new ConcurrentHashMap<>();
+
+    /**
+     * Folia: a player's position as last published from the region that owns them.
+     */
+    private static final class Publisher {
+        final Player player;
+        volatile Location location;  // A fresh copy each tick, never modified once published
+        ShipScheduling.Task task;
+
+        Publisher(Player player) {
+            this.player = player;
+        }
+    }
+
+    private final Player[] players;
+    private final World[] worlds;
+    private final double[] positions;  // x, y, z per player
+    private final int count;
+
+    // Cell (16 blocks on X and Z) -> first player, players chained through next
+    private final CellTable cells;
+    private final int[] next;
+
+    private PlayerGrid(Player[] players, World[] worlds, double[] positions, int count) {
+        this.players = players;
+        this.worlds = worlds;
+        this.positions = positions;
+        this.count = count;
+
+        this.cells = new CellTable(count);
+        this.next = new int[count];
+
+        for (int i = 0; i < count; i++) {
+            long key = CellTable.key(cell(positions[i * 3]), cell(positions[i * 3 + 2]));
+            next[i] = cells.get(key);
+            cells.put(key, i);
+        }
+    }
+
+    /**
+     * Snapshots the positions of all online players: read directly on Paper, from the published
+     * copies on Folia.
+     */
+    static void rebuild(Plugin plugin) {
+        Collection<? extends Player> online = Bukkit.getOnlinePlayers();
+        int capacity = online.size();
+        Player[] players = new Player[capacity];
+        World[] worlds = new World[capacity];
+        double[] positions = new double[capacity * 3];
+        boolean folia = ShipScheduling.isFolia();
+        Location scratch = new Location(null, 0, 0, 0);
+        int count = 0;
+        for (Player player : online) {
+            if (count == capacity) break;  // Joined concurrently; picked up next tick
+            Location loc = folia ? publishedLocation(plugin, player) : player.getLocation(scratch);
+            if (loc == null) continue;  // Nothing published yet
+            players[count] = player;
+            worlds[count] = loc.getWorld();
+            positions[count * 3] = loc.getX();
+            positions[count * 3 + 1] = loc.getY();
+            positions[count * 3 + 2] = loc.getZ();
+            count++;
+        }
+        current = new PlayerGrid(players, worlds, positions, count);
+    }
+
+    /**
+     * Folia: the player's last published location, or null if none yet. Starts the player's publisher
+     * the first time they are seen (again after a rejoin, which brings a new Player object).
+     * Called from the global region only.
+     */
+    private static Location publishedLocation(Plugin plugin, Player player) {
+        Publisher publisher = publishers.get(player.getUniqueId());
+        if (publisher != null && publisher.player == player) {
+            return publisher.location;
+        }
+        if (publisher != null && publisher.task != null) {
+            publisher.task.cancel();
+        }
+        Publisher created = new Publisher(player);
+        publishers.put(player.getUniqueId(), created);
+        // Retired when the player leaves; the map entry goes with it
+        created.task = ShipScheduling.runTimer(plugin, player, 1L, 1L,
+            () -> created.location = player.getLocation(),
+            () -> publishers.remove(player.getUniqueId(), created));
+        if (created.task == null) {
+            publishers.remove(player.getUniqueId(), created);
+        }
+        return null;
+    }
+
+    /**
+     * Folia: cancels the position publishers (scheduler stopped).
+     */
+    static void stopPublishing() {
+        for (Publisher publisher : publishers.values()) {
+            if (publisher.task != null) publisher.task.cancel();
+        }
+        publishers.clear();
+    }
+
+    /**
+     * Whether any player in the world is within the given distance of a point.
+     */
+    static boolean anyWithin(World world, double x, double y, double z, double radius) {
+        return current.nearestSq(world, x, y, z, radius, true) <= radius * radius;
+    }
+
+    /**
+     * Squared distance from a point to the nearest player in the world, looking no further than maxDistance.
+     *
+     * @return The squared distance, or Double.MAX_VALUE if no player is that close
+     */
+    static double nearestDistanceSq(World world, double x, double y, double z, double maxDistance) {
+        return current.nearestSq(world, x, y, z, maxDistance, false);
+    }
+
+    /**
+     * Finds the players in the world whose position lies inside the box.
+     *
+     * @param out Receives the players; a full buffer truncates the result
+     * @return Number of players written
+     */
+    static int playersIn(World world, double minX, double minY, double minZ,
+                         double maxX, double maxY, double maxZ, Player[] out) {
+        return current.find(world, minX, minY, minZ, maxX, maxY, maxZ, out);
+    }
+
+    private double nearestSq(World world, double x, double y, double z, double maxDistance, boolean firstHit) {
+        double limitSq = maxDistance * maxDistance;
+        double nearest = Double.MAX_VALUE;
+        int minCx = cell(x - maxDistance), maxCx = cell(x + maxDistance);
+        int minCz = cell(z - maxDistance), maxCz = cell(z + maxDistance);
+
+        if (CellTable.touchesMoreCellsThan(minCx, minCz, maxCx, maxCz, count)) {
+            for (int i = 0; i < count; i++) {
+                double d = distanceSq(i, world, x, y, z);
+                if (d <= limitSq && d < nearest) {
+                    nearest = d;
+                    if (firstHit) return nearest;
+                }
+            }
+            return nearest;
+        }
+
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cz = minCz; cz <= maxCz; cz++) {
+                for (int i = cells.get(cx, cz); i >= 0; i = next[i]) {
+                    double d = distanceSq(i, world, x, y, z);
+                    if (d <= limitSq && d < nearest) {
+                        nearest = d;
+                        if (firstHit) return nearest;
+                    }
+                }
+            }
+        }
+        return nearest;
+    }
+
+    private int find(World world, double minX, double minY, double minZ,
+                     double maxX, double maxY, double maxZ, Player[] out) {
+        int found = 0;
+        for (int cx = cell(minX), cellMaxX = cell(maxX); cx <= cellMaxX; cx++) {
+            for (int cz = cell(minZ), cellMaxZ = cell(maxZ); cz <= cellMaxZ; cz++) {
+                for (int i = cells.get(cx, cz); i >= 0; i = next[i]) {
+                    if (worlds[i] != world) continue;
+                    double px = positions[i * 3], py = positions[i * 3 + 1], pz = positions[i * 3 + 2];
+                    if (px < minX || px > maxX || py < minY || py > maxY || pz < minZ || pz > maxZ) continue;
+                    if (found == out.length) return found;
+                    out[found++] = players[i];
+                }
+            }
+        }
+        return found;
+    }
+
+    private double distanceSq(int i, World world, double x, double y, double z) {
+        if (worlds[i] != world) return Double.MAX_VALUE;
+        double dx = positions[i * 3] - x;
+        double dy = positions[i * 3 + 1] - y;
+        double dz = positions[i * 3 + 2] - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static int cell(double coordinate) {
+        return CellTable.cell(coordinate);
+    }
+}
@@ -1,124 +1,104 @@
 package anon.def9a2a4.blockships.ship;
 
 import anon.def9a2a4.blockships.ShipConfig;
-import anon.def9a2a4.blockships.ShipRegistry;
-import anon.def9a2a4.blockships.ShipTags;
+import anon.def9a2a4.blockships.ShipModel;
+import anon.def9a2a4.blockships.ShipScheduling;
 import org.bukkit.Location;
-import org.bukkit.Material;
 import org.bukkit.World;
-import org.bukkit.block.Block;
 import org.bukkit.entity.*;
+import org.joml.Matrix4f;
 import org.joml.Vector3f;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.Arrays;
 
 /**
  * Handles collision detection and response for a ship.
  * Detects terrain, entity, and ship-to-ship collisions and calculates appropriate forces.
  */
 public class ShipCollision {
+    // Colliders are shrunk by this much per side for the swept test, so resting contact and shallow
+    // overlaps stay with the penetration response and only deeper moves into terrain are clamped
+    private static final double SWEEP_SKIN = 0.25;
+
+    // Blocks of slack scanned around the ship's bounds, so a ship in open water can move a little
+    // before the terrain broadphase has to scan again
+    private static final int TERRAIN_SCAN_MARGIN = 2;
+
     private final ShipInstance ship;
+    private TerrainWindow terrain;  // Cached block solidity around the ship (created on first detection)
+
+    // Terrain broadphase: solid blocks found in the last scanned range, valid while the window version holds
+    private int scanMinX, scanMinY, scanMinZ, scanMaxX, scanMaxY, scanMaxZ;
+    private int scanVersion;
+    private TerrainWindow scanWindow;
+    private int[] solidCells = new int[48];  // x, y, z per solid block
+    private int solidCount;
+    private boolean[] terrainCandidates = new boolean[0];  // By collider slot: may touch a solid block
+    // World bounds from the last update, and the copy published to the ship-to-ship broadphase
+    private double boundsMinX, boundsMinY, boundsMinZ, boundsMaxX, boundsMaxY, boundsMaxZ;
+    private volatile ShipSpatialHash.Bounds publishedBounds;
+    private volatile ShipSpatialHash.Bounds watchedBounds;  // Terrain window plus sleeping hull (see publishWatchedBounds)
+    private ShipSpatialHash.Bounds[] nearbyShips = new ShipSpatialHash.Bounds[16];  // Grown when a query fills it
+    private int[] pairScratch = new int[32];  // Collider indices near a contact: ours, then theirs
+    private final Matrix4f scratchRotation = new Matrix4f();
+    private final Vector3f scratchAngles = new Vector3f();
+    private final float[] scratchBounds = new float[6];
+    private double[] sweepBoxes = new double[0];  // Per-collider shrunk AABBs for the swept test (6 per collider)
+    private final double[] sweepOffset = new double[3];  // Displacement resolved so far, per axis
+    private final int[] sweepCell = new int[3];          // Block being tested, per axis
 
     public ShipCollision(ShipInstance ship) {
         this.ship = ship;
     }
 
+    /**
+     * Called when a block changes. Forgets the cached solidity of that block if it lies in
+     * this ship's terrain window, on the thread that owns the ship.
+     */
+    public void invalidateTerrain(World world, int x, int y, int z) {
+        TerrainWindow window = terrain;
+        if (window == null || !window.contains(world, x, y, z)) return;
+        ShipScheduling.run(ship.plugin, ship.vehicle, () -> window.invalidate(world, x, y, z));
+    }
+
     /**
      * Detect all collisions and accumulate forces.
      * Only runs if ship is moving or has collision force from previous tick.
+     * The ship's world bounds are refreshed and published for the ship-to-ship broadphase either way.
      */
     public void detect() {
-        // Only check collisions if ship is moving or was recently bumped
-        boolean isMoving = Math.abs(ship.physics.currentSpeed) > 0.001f ||
-                          Math.abs(ship.physics.currentRotationVelocity) > 0.01f;
-        boolean hasPreviousForce = ship.physics.collisionForce.lengthSquared() > 0.001f;
+        Location vehicleLoc = ship.vehicle.getLocation();
+        ShipModel.ColliderOffsets offsets = ship.colliderOffsets();
+        updateBounds(vehicleLoc, offsets);
 
-        if (!isMoving && !hasPreviousForce) {
+        // Only check collisions if ship is moving or was recently bumped
+        if (!isActive()) {
             return; // Skip collision detection for stationary ships
         }
 
         Vector3f totalForce = new Vector3f(0, 0, 0);
         int collisionCount = 0;
-        // String ownShipTag = ShipTags.shipTag(ship.id);
-
-        // Optimization: Query nearby entities once for the entire ship using cached radius
-        // Location vehicleLoc = ship.vehicle.getLocation();
-        // float radius = ship.collisionRadius;
-        // Collection<Entity> allNearbyEntities = vehicleLoc.getWorld()
-        //     .getNearbyEntities(vehicleLoc, radius, radius, radius);
-
-        // // Pre-filter: remove own ship entities once (avoid repeated tag checks per collider)
-        // List<Entity> relevantEntities = new ArrayList<>();
-        // for (Entity e : allNearbyEntities) {
-        //     if (!e.getScoreboardTags().contains(ownShipTag)) {
-        //         relevantEntities.add(e);
-        //     }
-        // }
-
-        for (CollisionBox cb : ship.colliders) {
-            // 1. Check terrain collisions
-            Vector3f terrainForce = calculateTerrainCollisionForce(cb);
-            if (terrainForce.lengthSquared() > 0.001f) {
-                totalForce.add(terrainForce);
-                collisionCount++;
-            }
 
-            // // 2. Check entity and ship collisions
-            // Location cbLoc = cb.entity.getLocation();
-
-            // for (Entity nearby : relevantEntities) {
-            //     // Distance check using max axis distance (matches getNearbyEntities box query)
-            //     Location nearbyLoc = nearby.getLocation();
-            //     double dx = Math.abs(cbLoc.getX() - nearbyLoc.getX());
-            //     double dy = Math.abs(cbLoc.getY() - nearbyLoc.getY());
-            //     double dz = Math.abs(cbLoc.getZ() - nearbyLoc.getZ());
-            //     if (dx > 2.0 || dy > 2.0 || dz > 2.0) {
-            //         continue; // Entity too far from this collider
-            //     }
-
-            //     // Check if entity belongs to another ship
-            //     Optional<String> otherShipTag = nearby.getScoreboardTags().stream()
-            //         .filter(tag -> tag.startsWith(ShipTags.SHIP_PREFIX))
-            //         .findFirst();
-
-            //     if (otherShipTag.isPresent() && nearby instanceof Shulker otherShulker) {
-            //         // This is another ship's collision box - ship-to-ship collision
-            //         try {
-            //             String otherShipIdStr = otherShipTag.get().substring(ShipTags.SHIP_PREFIX.length());
-            //             UUID otherShipId = UUID.fromString(otherShipIdStr);
-            //             ShipInstance otherShip = ShipRegistry.byId(otherShipId);
-
-            //             if (otherShip != null) {
-            //                 // Find the collision box for the other ship's shulker
-            //                 for (CollisionBox otherCb : otherShip.colliders) {
-            //                     if (otherCb.entity == otherShulker) {
-            //                         Vector3f shipForce = calculateShipCollisionForce(cb, otherShip, otherCb);
-            //                         if (shipForce.lengthSquared() > 0.001f) {
-            //                             totalForce.add(shipForce);
-            //                             collisionCount++;
-            //                         }
-            //                         break;
-            //                     }
-            //                 }
-            //             }
-            //         } catch (IllegalArgumentException e) {
-            //             // Invalid UUID, skip
-            //         }
-            //     } else if (nearby instanceof LivingEntity || nearby instanceof Boat || nearby instanceof Minecart) {
-            //         // Regular entity collision
-            //         Vector3f entityForce = calculateEntityCollisionForce(cb, nearby);
-            //         if (entityForce.lengthSquared() > 0.001f) {
-            //             totalForce.add(entityForce);
-            //             collisionCount++;
-            //         }
-            //     }
-            // }
+        // 1. Terrain collisions
+        // Broadphase: only colliders near a solid block inside the ship's bounds get the per-block test
+        ColliderSet colliders = ship.colliders;
+        TerrainWindow window = coverTerrain(vehicleLoc);
+        if (findTerrainCandidates(window, vehicleLoc, offsets)) {
+            boolean[] candidates = terrainCandidates;
+            for (int i = 0, count = colliders.size(); i < count; i++) {
+                int slot = colliders.offsetSlots[i];
+                if (slot >= 0 && slot < offsets.count && !candidates[slot]) continue;
+                Vector3f terrainForce = calculateTerrainCollisionForce(colliders.shulkers[i], window);
+                if (terrainForce.lengthSquared() > 0.001f) {
+                    totalForce.add(terrainForce);
+                    collisionCount++;
+                }
+            }
         }
 
+        // 2. Ship-to-ship collisions
+        collisionCount += detectShipCollisions(vehicleLoc.getWorld(), totalForce);
+
         // Update collision force
         if (collisionCount > 0) {
             // Average the forces and set as new collision force
@@ -134,6 +114,278 @@ public class ShipCollision {
         }
     }
 
+    /**
+     * Whether this ship runs collision detection this update: it is moving or turning,
+     * or still has collision force from a previous contact.
+     */
+    boolean isActive() {
+        return Math.abs(ship.physics.currentSpeed) > 0.001f
+            || Math.abs(ship.physics.currentRotationVelocity) > 0.01f
+            || ship.physics.collisionForce.lengthSquared() > 0.001f;
+    }
+
+    /**
+     * The ship's world bounds as of its last update, or null before the first one.
+     */
+    ShipSpatialHash.Bounds getPublishedBounds() {
+        return publishedBounds;
+    }
+
+    /**
+     * Computes the ship's world bounds (the model's collider hierarchy root rotated to the current
+     * orientation, as an axis-aligned box) and publishes them if they changed.
+     * Leaves the rotation in {@link #scratchRotation} for the terrain broadphase.
+     */
+    private void updateBounds(Location loc, ShipModel.ColliderOffsets offsets) {
+        Matrix4f r = ship.model.rotationFor(loc.getYaw(), loc.getPitch(), scratchRotation, scratchAngles);
+        float m00 = r.m00(), m01 = r.m01(), m02 = r.m02();
+        float m10 = r.m10(), m11 = r.m11(), m12 = r.m12();
+        float m20 = r.m20(), m21 = r.m21(), m22 = r.m22();
+        float[] b = scratchBounds;
+        offsets.bvh.rootBounds(b);
+        float cx = (b[0] + b[3]) * 0.5f, cy = (b[1] + b[4]) * 0.5f, cz = (b[2] + b[5]) * 0.5f;
+        float ex = (b[3] - b[0]) * 0.5f, ey = (b[4] - b[1]) * 0.5f, ez = (b[5] - b[2]) * 0.5f;
+        double wcx = loc.getX() + m00 * cx + m10 * cy + m20 * cz;
+        double wcy = loc.getY() + m01 * cx + m11 * cy + m21 * cz;
+        double wcz = loc.getZ() + m02 * cx + m12 * cy + m22 * cz;
+        double wex = Math.abs(m00) * ex + Math.abs(m10) * ey + Math.abs(m20) * ez;
+        double wey = Math.abs(m01) * ex + Math.abs(m11) * ey + Math.abs(m21) * ez;
+        double wez = Math.abs(m02) * ex + Math.abs(m12) * ey + Math.abs(m22) * ez;
+        boundsMinX = wcx - wex;
+        boundsMinY = wcy - wey;
+        boundsMinZ = wcz - wez;
+        boundsMaxX = wcx + wex;
+        boundsMaxY = wcy + wey;
+        boundsMaxZ = wcz + wez;
+
+        if (offsets.bvh.isEmpty()) {
+            publishedBounds = null;
+            return;
+        }
+        ShipSpatialHash.Bounds published = publishedBounds;
+        World world = loc.getWorld();
+        if (published == null || !published.equals(world, boundsMinX, boundsMinY, boundsMinZ, boundsMaxX, boundsMaxY, boundsMaxZ)) {
+            publishedBounds = new ShipSpatialHash.Bounds(ship, world,
+                boundsMinX, boundsMinY, boundsMinZ, boundsMaxX, boundsMaxY, boundsMaxZ);
+        }
+    }
+
+    /**
+     * Ship-to-ship collisions. The spatial hash finds ships whose bounds overlap ours; for each, only
+     * the colliders of both ships inside the overlap of the two bounds go through the pairwise test.
+     *
+     * @return Number of contacts whose force was added to totalForce
+     */
+    private int detectShipCollisions(World world, Vector3f totalForce) {
+        int found = ShipSpatialHash.query(ship, world,
+            boundsMinX, boundsMinY, boundsMinZ, boundsMaxX, boundsMaxY, boundsMaxZ, nearbyShips);
+        while (found == nearbyShips.length) {
+            // A full buffer may have cut the result short; query again with room to spare
+            nearbyShips = new ShipSpatialHash.Bounds[nearbyShips.length * 2];
+            found = ShipSpatialHash.query(ship, world,
+                boundsMinX, boundsMinY, boundsMinZ, boundsMaxX, boundsMaxY, boundsMaxZ, nearbyShips);
+        }
+        ShipSpatialHash.Bounds[] nearby = nearbyShips;
+        int contacts = 0;
+        for (int n = 0; n < found; n++) {
+            ShipSpatialHash.Bounds other = nearby[n];
+            ShipInstance otherShip = other.ship;
+            // Folia: another region's ship can't be touched from here; its own tick handles the contact
+            if (!ShipScheduling.isOwnedByCurrentRegion(otherShip.vehicle)) continue;
+
+            // Overlap of the two ships' bounds
+            double minX = Math.max(boundsMinX, other.minX), maxX = Math.min(boundsMaxX, other.maxX);
+            double minY = Math.max(boundsMinY, other.minY), maxY = Math.min(boundsMaxY, other.maxY);
+            double minZ = Math.max(boundsMinZ, other.minZ), maxZ = Math.min(boundsMaxZ, other.maxZ);
+
+            int ours = collidersIn(ship.colliders, minX, minY, minZ, maxX, maxY, maxZ, 0);
+            if (ours == 0) continue;
+            int theirs = collidersIn(otherShip.colliders, minX, minY, minZ, maxX, maxY, maxZ, ours);
+            if (theirs == 0) continue;
+
+            // If the other ship runs detection itself it picks up its own side of the contact,
+            // so only push it from here when it is at rest (this also wakes it)
+            boolean pushOther = !otherShip.collision.isActive();
+            ColliderSet ourSet = ship.colliders;
+            ColliderSet theirSet = otherShip.colliders;
+            for (int a = 0; a < ours; a++) {
+                int i = pairScratch[a];
+                for (int b = ours; b < ours + theirs; b++) {
+                    int j = pairScratch[b];
+                    // Cheap check on synced positions before reading the shulkers' real boxes
+                    float reach = (ourSet.sizes[i] + theirSet.sizes[j]) * 0.5f + 1.0f;
+                    if (Math.abs(ourSet.prevX[i] - theirSet.prevX[j]) > reach
+                            || Math.abs(ourSet.prevY[i] - theirSet.prevY[j]) > reach
+                            || Math.abs(ourSet.prevZ[i] - theirSet.prevZ[j]) > reach) {
+                        continue;
+                    }
+                    Shulker shulker = ourSet.shulkers[i];
+                    Shulker otherShulker = theirSet.shulkers[j];
+                    Vector3f shipForce = calculateShipCollisionForce(shulker, otherShip, otherShulker, pushOther);
+                    if (shipForce.lengthSquared() > 0.001f) {
+                        totalForce.add(shipForce);
+                        contacts++;
+                    }
+                }
+            }
+        }
+        return contacts;
+    }
+
+    /**
+     * Writes into {@link #pairScratch} (from offset) the indices of the placed colliders whose box,
+     * estimated from the last synced carrier position and shulker size, reaches into the given box.
+     *
+     * @return Number of indices written
+     */
+    private int collidersIn(ColliderSet set, double minX, double minY, double minZ,
+                            double maxX, double maxY, double maxZ, int offset) {
+        int written = 0;
+        for (int i = 0, count = set.size(); i < count; i++) {
+            if (!set.hasFlag(i, ColliderSet.FLAG_PLACED)) continue;
+            float half = set.sizes[i] * 0.5f;
+            float x = set.prevX[i], y = set.prevY[i], z = set.prevZ[i];
+            // One block of slack for the shulker's ride height above its carrier
+            if (x + half + 1 < minX || x - half - 1 > maxX
+                    || y + set.sizes[i] + 1 < minY || y - 1 > maxY
+                    || z + half + 1 < minZ || z - half - 1 > maxZ) {
+                continue;
+            }
+            if (pairScratch.length <= offset + written) {
+                pairScratch = Arrays.copyOf(pairScratch, pairScratch.length * 2);
+            }
+            pairScratch[offset + written++] = i;
+        }
+        return written;
+    }
+
+    /**
+     * Swept terrain test for one update's translation, run before the move is committed.
+     * Moves the colliders along Y, then X, then Z, stopping each axis at the first solid block in the
+     * way, so fast ships and long LOD steps can't tunnel through thin walls or floors. Rotation is not swept.
+     *
+     * @param from Vehicle position before the move
+     * @param r    Integration result; its position is clamped in place (and vertical velocity zeroed on a vertical hit)
+     * @return true if the motion was clamped
+     */
+    boolean sweepTerrain(Location from, ShipPhysics.Result r) {
+        double dx = r.x - from.getX();
+        double dy = r.y - from.getY();
+        double dz = r.z - from.getZ();
+        // Moves shorter than the skin can't pass through a block; the discrete test handles them
+        if (Math.abs(dx) <= SWEEP_SKIN && Math.abs(dy) <= SWEEP_SKIN && Math.abs(dz) <= SWEEP_SKIN) {
+            return false;
+        }
+
+        ColliderSet colliders = ship.colliders;
+        int count = colliders.size();
+        if (count == 0) return false;
+        if (sweepBoxes.length < count * 6) {
+            sweepBoxes = new double[count * 6];
+        }
+
+        // Collider boxes at the start pose, shrunk by the skin
+        double[] boxes = sweepBoxes;
+        int boxCount = 0;
+        for (int i = 0; i < count; i++) {
+            Shulker shulker = colliders.shulkers[i];
+            if (!colliders.hasFlag(i, ColliderSet.FLAG_PLACED) || !shulker.isValid()) continue;
+            if (!ShipScheduling.isOwnedByCurrentRegion(shulker)) continue;  // Folia: collider in another region
+            org.bukkit.util.BoundingBox box = shulker.getBoundingBox();
+            // Small shulkers keep at least half their size
+            double skin = Math.min(SWEEP_SKIN, box.getWidthX() * 0.25);
+            int b = boxCount++ * 6;
+            boxes[b] = box.getMinX() + skin;
+            boxes[b + 1] = box.getMinY() + skin;
+            boxes[b + 2] = box.getMinZ() + skin;
+            boxes[b + 3] = box.getMaxX() - skin;
+            boxes[b + 4] = box.getMaxY() - skin;
+            boxes[b + 5] = box.getMaxZ() - skin;
+        }
+        if (boxCount == 0) return false;
+
+        TerrainWindow window = coverTerrain(from);
+        double allowedY = sweepAxis(window, boxes, boxCount, 1, dy, 0, 0, 0);
+        double allowedX = sweepAxis(window, boxes, boxCount, 0, dx, 0, allowedY, 0);
+        double allowedZ = sweepAxis(window, boxes, boxCount, 2, dz, allowedX, allowedY, 0);
+
+        boolean clamped = false;
+        if (allowedY != dy) {
+            r.y = from.getY() + allowedY;
+            r.yVelocity = 0.0f;
+            clamped = true;
+        }
+        if (allowedX != dx || allowedZ != dz) {
+            // Speed is left alone: the remaining overlap is within the skin, so the penetration
+            // response picks up the contact next tick and slows the ship as before
+            r.x = from.getX() + allowedX;
+            r.z = from.getZ() + allowedZ;
+            clamped = true;
+        }
+        return clamped;
+    }
+
+    /**
+     * Largest displacement (up to {@code distance}) along one axis before any collider box,
+     * offset by the displacement already resolved on the other axes, enters a solid block.
+     * Blocks a box already overlaps are ignored.
+     */
+    private double sweepAxis(TerrainWindow window, double[] boxes, int boxCount, int axis, double distance,
+                             double offsetX, double offsetY, double offsetZ) {
+        if (distance == 0) return 0;
+        // The two axes perpendicular to the sweep (0 = X, 1 = Y, 2 = Z)
+        int u = axis == 0 ? 1 : 0;
+        int v = axis == 2 ? 1 : 2;
+        double[] offset = sweepOffset;
+        offset[0] = offsetX;
+        offset[1] = offsetY;
+        offset[2] = offsetZ;
+        int[] cell = sweepCell;
+
+        double allowed = distance;
+        for (int i = 0; i < boxCount; i++) {
+            int b = i * 6;
+            double minU = boxes[b + u] + offset[u], maxU = boxes[b + 3 + u] + offset[u];
+            double minV = boxes[b + v] + offset[v], maxV = boxes[b + 3 + v] + offset[v];
+            int fromU = (int) Math.floor(minU), toU = (int) Math.ceil(maxU) - 1;
+            int fromV = (int) Math.floor(minV), toV = (int) Math.ceil(maxV) - 1;
+
+            if (distance > 0) {
+                // Leading face moves up the axis; first block whose low face is at or past it
+                double face = boxes[b + 3 + axis] + offset[axis];
+                for (int c = (int) Math.ceil(face); c < face + allowed; c++) {
+                    cell[axis] = c;
+                    if (anySolid(window, cell, u, fromU, toU, v, fromV, toV)) {
+                        allowed = c - face;
+                        break;
+                    }
+                }
+            } else {
+                // Leading face moves down the axis; first block whose high face is at or before it
+                double face = boxes[b + axis] + offset[axis];
+                for (int c = (int) Math.floor(face) - 1; c + 1 > face + allowed; c--) {
+                    cell[axis] = c;
+                    if (anySolid(window, cell, u, fromU, toU, v, fromV, toV)) {
+                        allowed = (c + 1) - face;
+                        break;
+                    }
+                }
+            }
+        }
+        return allowed;
+    }
+
+    private static boolean anySolid(TerrainWindow window, int[] cell, int u, int fromU, int toU, int v, int fromV, int toV) {
+        for (int cu = fromU; cu <= toU; cu++) {
+            cell[u] = cu;
+            for (int cv = fromV; cv <= toV; cv++) {
+                cell[v] = cv;
+                if (window.isSolid(cell[0], cell[1], cell[2])) return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Apply collision response to ship movement.
      */
@@ -192,7 +444,7 @@ public class ShipCollision {
                     0,
                     forceDir.z * config.collisionResponseStrength * 0.3f
                 );
-                ship.vehicle.teleport(vehicleLoc);
+                ShipScheduling.teleport(ship.vehicle, vehicleLoc);
             }
         } else {
             // Ship is moving - apply resistance and sliding forces
@@ -220,7 +472,7 @@ public class ShipCollision {
                     0, // No Y movement
                     lateralForce.z * config.collisionResponseStrength
                 );
-                ship.vehicle.teleport(vehicleLoc);
+                ShipScheduling.teleport(ship.vehicle, vehicleLoc);
             }
         }
 
@@ -243,84 +495,221 @@ public class ShipCollision {
     // ===== Private Helper Methods =====
 
     /**
-     * Get the mass of an entity for collision physics calculations.
+     * Slides the terrain window over the ship's collision reach (plus the broadphase scan margin),
+     * resizing it if the reach changed.
      */
-    private float getMassForEntity(Entity entity) {
-        ShipConfig config = ship.config;
-
-        // Boats and minecarts
-        if (entity instanceof Boat || entity instanceof Minecart) {
-            return config.boatMass;
+    private TerrainWindow coverTerrain(Location loc) {
+        float reach = Math.max(ship.collisionRadius, 1.0f) + TERRAIN_SCAN_MARGIN;
+        if (terrain == null || terrain.reach() != reach) {
+            terrain = new TerrainWindow(reach, ShipInstance.TERRAIN_WINDOW_PADDING);
+        }
+        boolean moved = terrain.cover(loc.getWorld(),
+            (int) Math.floor(loc.getX() - reach), (int) Math.floor(loc.getY() - reach), (int) Math.floor(loc.getZ() - reach),
+            (int) Math.ceil(loc.getX() + reach), (int) Math.ceil(loc.getY() + reach), (int) Math.ceil(loc.getZ() + reach));
+        if (moved) {
+            publishWatchedBounds();
         }
+        return terrain;
+    }
 
-        // Check if entity is a living entity
-        if (!(entity instanceof LivingEntity)) {
-            return config.mobMediumMass; // Default for non-living entities
+    /**
+     * The block range this ship watches for changes, or null if it has none yet.
+     */
+    ShipSpatialHash.Bounds getWatchedBounds() {
+        return watchedBounds;
+    }
+
+    /**
+     * Publishes the block range this ship watches for changes: its terrain window, extended over its
+     * hull while it sleeps. Called whenever either one moves.
+     */
+    void publishWatchedBounds() {
+        TerrainWindow window = terrain;
+        org.bukkit.util.BoundingBox hull = ship.getHullBounds();
+        World world;
+        double minX, minY, minZ, maxX, maxY, maxZ;
+        if (window != null && window.isPlaced()) {
+            world = window.world();
+            minX = window.minX();
+            minY = window.minY();
+            minZ = window.minZ();
+            maxX = minX + window.size();
+            maxY = minY + window.size();
+            maxZ = minZ + window.size();
+            if (hull != null) {
+                minX = Math.min(minX, hull.getMinX());
+                minY = Math.min(minY, hull.getMinY());
+                minZ = Math.min(minZ, hull.getMinZ());
+                maxX = Math.max(maxX, hull.getMaxX());
+                maxY = Math.max(maxY, hull.getMaxY());
+                maxZ = Math.max(maxZ, hull.getMaxZ());
+            }
+        } else if (hull != null) {
+            world = ship.vehicle.getWorld();
+            minX = hull.getMinX();
+            minY = hull.getMinY();
+            minZ = hull.getMinZ();
+            maxX = hull.getMaxX();
+            maxY = hull.getMaxY();
+            maxZ = hull.getMaxZ();
+        } else {
+            return;
         }
+        watchedBounds = new ShipSpatialHash.Bounds(ship, world, minX, minY, minZ, maxX, maxY, maxZ);
+        ShipSpatialHash.markWatchedStale();
+    }
+
+    /**
+     * Called when a block changes: forgets it in the terrain window of every ship whose window holds it
+     * and, if wake is set, wakes sleeping ships whose hull holds it. The ships come from the grid of
+     * watched ranges, so the cost depends on the ships near the block rather than on all loaded ships.
+     */
+    public static void blockChanged(World world, int x, int y, int z, boolean wake) {
+        ShipSpatialHash.visitWatching(world, x, y, z, wake ? ShipCollision::invalidateAndWake : ShipCollision::invalidate);
+    }
 
-        LivingEntity living = (LivingEntity) entity;
+    private static void invalidate(ShipInstance ship, World world, int x, int y, int z) {
+        ship.collision.invalidateTerrain(world, x, y, z);
+    }
 
-        // Large mobs
-        if (living instanceof org.bukkit.entity.IronGolem ||
-            living instanceof org.bukkit.entity.Warden ||
-            living instanceof org.bukkit.entity.Ravager ||
-            living instanceof org.bukkit.entity.EnderDragon ||
-            living instanceof org.bukkit.entity.Wither) {
-            return config.mobLargeMass;
+    private static void invalidateAndWake(ShipInstance ship, World world, int x, int y, int z) {
+        ship.collision.invalidateTerrain(world, x, y, z);
+        org.bukkit.util.BoundingBox hull = ship.getHullBounds();
+        if (hull != null && hull.contains(x + 0.5, y + 0.5, z + 0.5) && world.equals(ship.vehicle.getWorld())) {
+            ship.wake();
         }
+    }
 
-        // Small mobs
-        if (living instanceof org.bukkit.entity.Chicken ||
-            living instanceof org.bukkit.entity.Rabbit ||
-            living instanceof org.bukkit.entity.Bat ||
-            living instanceof org.bukkit.entity.Parrot ||
-            living instanceof org.bukkit.entity.Silverfish) {
-            return config.mobSmallMass;
+    /**
+     * Terrain broadphase. First tests the ship's world bounds (see {@link #updateBounds}) for solid blocks; the scan result is reused while the ship
+     * stays inside the scanned range and no block in it changes, so a ship in open water or sky costs
+     * one range check per tick. Only if solid blocks lie inside the bounds does it descend the hierarchy,
+     * marking in {@link #terrainCandidates} (by collider slot) the colliders that may touch one of them.
+     *
+     * @return true if any collider may touch terrain
+     */
+    private boolean findTerrainCandidates(TerrainWindow window, Location loc, ShipModel.ColliderOffsets offsets) {
+        ShipModel.ColliderBvh bvh = offsets.bvh;
+        if (bvh.isEmpty()) return false;
+
+        // Ship bounds in world space (from updateBounds), as a block range
+        int minX = (int) Math.floor(boundsMinX), maxX = (int) Math.ceil(boundsMaxX) - 1;
+        int minY = (int) Math.floor(boundsMinY), maxY = (int) Math.ceil(boundsMaxY) - 1;
+        int minZ = (int) Math.floor(boundsMinZ), maxZ = (int) Math.ceil(boundsMaxZ) - 1;
+
+        // Level 1: ship bounds against the cached solidity, rescanning only when the last scan no longer applies
+        boolean scanValid = scanWindow == window && scanVersion == window.version()
+            && minX >= scanMinX && maxX <= scanMaxX
+            && minY >= scanMinY && maxY <= scanMaxY
+            && minZ >= scanMinZ && maxZ <= scanMaxZ;
+        if (!scanValid) {
+            scanTerrain(window,
+                minX - TERRAIN_SCAN_MARGIN, minY - TERRAIN_SCAN_MARGIN, minZ - TERRAIN_SCAN_MARGIN,
+                maxX + TERRAIN_SCAN_MARGIN, maxY + TERRAIN_SCAN_MARGIN, maxZ + TERRAIN_SCAN_MARGIN);
+        }
+        if (solidCount == 0) return false;
+
+        // Level 2: each solid block inside the bounds, moved into ship-local space, against the hierarchy
+        Matrix4f r = scratchRotation;  // Current orientation, from updateBounds
+        float m00 = r.m00(), m01 = r.m01(), m02 = r.m02();
+        float m10 = r.m10(), m11 = r.m11(), m12 = r.m12();
+        float m20 = r.m20(), m21 = r.m21(), m22 = r.m22();
+        if (terrainCandidates.length < offsets.count) {
+            terrainCandidates = new boolean[offsets.count];
+        } else {
+            Arrays.fill(terrainCandidates, false);
+        }
+        // Half extent of a unit block after rotating into local space (transpose of R)
+        float hx = 0.5f * (Math.abs(m00) + Math.abs(m01) + Math.abs(m02));
+        float hy = 0.5f * (Math.abs(m10) + Math.abs(m11) + Math.abs(m12));
+        float hz = 0.5f * (Math.abs(m20) + Math.abs(m21) + Math.abs(m22));
+        int marked = 0;
+        int[] cells = solidCells;
+        for (int c = 0, end = solidCount * 3; c < end; c += 3) {
+            int x = cells[c], y = cells[c + 1], z = cells[c + 2];
+            if (x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ) continue;
+            float wx = (float) (x + 0.5 - loc.getX());
+            float wy = (float) (y + 0.5 - loc.getY());
+            float wz = (float) (z + 0.5 - loc.getZ());
+            float lx = m00 * wx + m01 * wy + m02 * wz;
+            float ly = m10 * wx + m11 * wy + m12 * wz;
+            float lz = m20 * wx + m21 * wy + m22 * wz;
+            marked += bvh.query(lx - hx, ly - hy, lz - hz, lx + hx, ly + hy, lz + hz, terrainCandidates);
         }
+        return marked > 0;
+    }
 
-        // Medium mobs (default)
-        // This includes players, zombies, skeletons, cows, horses, etc.
-        return config.mobMediumMass;
+    /**
+     * Collects the solid blocks in a range into {@link #solidCells}. The result is only reused if the
+     * range lies inside the window, where block changes are tracked.
+     */
+    private void scanTerrain(TerrainWindow window, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        solidCount = 0;
+        for (int y = minY; y <= maxY; y++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int x = minX; x <= maxX; x++) {
+                    if (!window.isSolid(x, y, z)) continue;
+                    if (solidCells.length < (solidCount + 1) * 3) {
+                        solidCells = Arrays.copyOf(solidCells, solidCells.length * 2);
+                    }
+                    int c = solidCount++ * 3;
+                    solidCells[c] = x;
+                    solidCells[c + 1] = y;
+                    solidCells[c + 2] = z;
+                }
+            }
+        }
+        if (window.covers(minX, minY, minZ, maxX, maxY, maxZ)) {
+            scanWindow = window;
+            scanVersion = window.version();
+            scanMinX = minX;
+            scanMinY = minY;
+            scanMinZ = minZ;
+            scanMaxX = maxX;
+            scanMaxY = maxY;
+            scanMaxZ = maxZ;
+        } else {
+            scanWindow = null;
+        }
     }
 
     /**
      * Calculate collision force from terrain (blocks).
      */
-    private Vector3f calculateTerrainCollisionForce(CollisionBox cb) {
-        org.bukkit.util.BoundingBox shulkerBox = cb.entity.getBoundingBox();
-        World world = cb.entity.getWorld();
+    private Vector3f calculateTerrainCollisionForce(Shulker shulker, TerrainWindow window) {
+        org.bukkit.util.BoundingBox shulkerBox = shulker.getBoundingBox();
         Vector3f totalForce = new Vector3f(0, 0, 0);
         int collisionCount = 0;
         ShipConfig config = ship.config;
 
+        double boxMinX = shulkerBox.getMinX(), boxMaxX = shulkerBox.getMaxX();
+        double boxMinY = shulkerBox.getMinY(), boxMaxY = shulkerBox.getMaxY();
+        double boxMinZ = shulkerBox.getMinZ(), boxMaxZ = shulkerBox.getMaxZ();
+
         // Check all blocks within the shulker's bounding box
-        int minX = (int) Math.floor(shulkerBox.getMinX());
-        int maxX = (int) Math.ceil(shulkerBox.getMaxX());
-        int minY = (int) Math.floor(shulkerBox.getMinY());
-        int maxY = (int) Math.ceil(shulkerBox.getMaxY());
-        int minZ = (int) Math.floor(shulkerBox.getMinZ());
-        int maxZ = (int) Math.ceil(shulkerBox.getMaxZ());
+        int minX = (int) Math.floor(boxMinX);
+        int maxX = (int) Math.ceil(boxMaxX);
+        int minY = (int) Math.floor(boxMinY);
+        int maxY = (int) Math.ceil(boxMaxY);
+        int minZ = (int) Math.floor(boxMinZ);
+        int maxZ = (int) Math.ceil(boxMaxZ);
 
         for (int x = minX; x <= maxX; x++) {
             for (int y = minY; y <= maxY; y++) {
                 for (int z = minZ; z <= maxZ; z++) {
-                    Block block = world.getBlockAt(x, y, z);
-
                     // Skip non-solid blocks
-                    if (!block.getType().isSolid() || block.getType() == Material.WATER) {
+                    if (!window.isSolid(x, y, z)) {
                         continue;
                     }
 
-                    // Get block bounding box
-                    org.bukkit.util.BoundingBox blockBox = new org.bukkit.util.BoundingBox(
-                        x, y, z,
-                        x + 1, y + 1, z + 1
-                    );
-
-                    // Check if shulker overlaps with block
-                    if (shulkerBox.overlaps(blockBox)) {
+                    // Check if shulker overlaps with the block's unit cube
+                    if (boxMinX < x + 1 && boxMaxX > x
+                            && boxMinY < y + 1 && boxMaxY > y
+                            && boxMinZ < z + 1 && boxMaxZ > z) {
                         // Calculate penetration depth and separation normal
-                        Vector3f force = calculatePenetrationForce(shulkerBox, blockBox);
+                        Vector3f force = calculatePenetrationForce(
+                            boxMinX, boxMinY, boxMinZ, boxMaxX, boxMaxY, boxMaxZ,
+                            x, y, z, x + 1, y + 1, z + 1);
                         if (force.lengthSquared() > config.minPenetrationDepth * config.minPenetrationDepth) {
                             // Scale force with ship speed (minimum 1.0 to preserve slow-ship behavior)
                             float speedFactor = Math.max(1.0f, Math.abs(ship.physics.currentSpeed) * config.terrainSpeedMultiplier);
@@ -340,52 +729,14 @@ public class ShipCollision {
         return totalForce;
     }
 
-    /**
-     * Calculate collision force from an entity.
-     */
-    private Vector3f calculateEntityCollisionForce(CollisionBox cb, Entity otherEntity) {
-        org.bukkit.util.BoundingBox shulkerBox = cb.entity.getBoundingBox();
-        org.bukkit.util.BoundingBox entityBox = otherEntity.getBoundingBox();
-        ShipConfig config = ship.config;
-
-        // Check overlap
-        if (!shulkerBox.overlaps(entityBox)) {
-            return new Vector3f(0, 0, 0);
-        }
-
-        // Calculate penetration force
-        Vector3f penetrationForce = calculatePenetrationForce(shulkerBox, entityBox);
-
-        // Check if penetration is significant enough
-        if (penetrationForce.lengthSquared() < config.minPenetrationDepth * config.minPenetrationDepth) {
-            return new Vector3f(0, 0, 0);
-        }
-
-        // Apply momentum-based physics
-        float entityMass = getMassForEntity(otherEntity);
-        float collisionShipMass = config.shipMass;
-
-        // Get entity velocity
-        org.bukkit.util.Vector entityVelocity = otherEntity.getVelocity();
-        float entitySpeed = (float) Math.sqrt(
-            entityVelocity.getX() * entityVelocity.getX() +
-            entityVelocity.getZ() * entityVelocity.getZ()
-        );
-
-        // Calculate force based on mass ratio and relative velocity
-        // F = (m1 * v1 - m2 * v2) / (m1 + m2)
-        float massRatio = entityMass / (collisionShipMass + entityMass);
-        float forceMultiplier = massRatio * (entitySpeed + Math.abs(ship.physics.currentSpeed));
-
-        return penetrationForce.mul(forceMultiplier);
-    }
-
     /**
      * Calculate collision force from another ship.
+     *
+     * @param pushOther Also apply the reaction force to the other ship (waking it if asleep)
      */
-    private Vector3f calculateShipCollisionForce(CollisionBox cb, ShipInstance otherShip, CollisionBox otherCb) {
-        org.bukkit.util.BoundingBox thisBox = cb.entity.getBoundingBox();
-        org.bukkit.util.BoundingBox otherBox = otherCb.entity.getBoundingBox();
+    private Vector3f calculateShipCollisionForce(Shulker shulker, ShipInstance otherShip, Shulker otherShulker, boolean pushOther) {
+        org.bukkit.util.BoundingBox thisBox = shulker.getBoundingBox();
+        org.bukkit.util.BoundingBox otherBox = otherShulker.getBoundingBox();
         ShipConfig config = ship.config;
 
         // Check overlap
@@ -415,8 +766,11 @@ public class ShipCollision {
         Vector3f force = penetrationForce.mul(forceMultiplier);
 
         // Apply reaction force to other ship (wake it up if stationary)
-        Vector3f reactionForce = new Vector3f(force).negate();
-        otherShip.physics.collisionForce.add(reactionForce);
+        if (pushOther) {
+            Vector3f reactionForce = new Vector3f(force).negate();
+            otherShip.physics.collisionForce.add(reactionForce);
+            otherShip.wake();
+        }
 
         return force;
     }
@@ -426,13 +780,22 @@ public class ShipCollision {
      * Returns a force vector pointing away from the obstacle.
      */
     private Vector3f calculatePenetrationForce(org.bukkit.util.BoundingBox thisBox, org.bukkit.util.BoundingBox otherBox) {
+        return calculatePenetrationForce(
+            thisBox.getMinX(), thisBox.getMinY(), thisBox.getMinZ(), thisBox.getMaxX(), thisBox.getMaxY(), thisBox.getMaxZ(),
+            otherBox.getMinX(), otherBox.getMinY(), otherBox.getMinZ(), otherBox.getMaxX(), otherBox.getMaxY(), otherBox.getMaxZ());
+    }
+
+    private Vector3f calculatePenetrationForce(double thisMinX, double thisMinY, double thisMinZ,
+                                               double thisMaxX, double thisMaxY, double thisMaxZ,
+                                               double otherMinX, double otherMinY, double otherMinZ,
+                                               double otherMaxX, double otherMaxY, double otherMaxZ) {
         // Get overlap region
-        double overlapMinX = Math.max(thisBox.getMinX(), otherBox.getMinX());
-        double overlapMaxX = Math.min(thisBox.getMaxX(), otherBox.getMaxX());
-        double overlapMinY = Math.max(thisBox.getMinY(), otherBox.getMinY());
-        double overlapMaxY = Math.min(thisBox.getMaxY(), otherBox.getMaxY());
-        double overlapMinZ = Math.max(thisBox.getMinZ(), otherBox.getMinZ());
-        double overlapMaxZ = Math.min(thisBox.getMaxZ(), otherBox.getMaxZ());
+        double overlapMinX = Math.max(thisMinX, otherMinX);
+        double overlapMaxX = Math.min(thisMaxX, otherMaxX);
+        double overlapMinY = Math.max(thisMinY, otherMinY);
+        double overlapMaxY = Math.min(thisMaxY, otherMaxY);
+        double overlapMinZ = Math.max(thisMinZ, otherMinZ);
+        double overlapMaxZ = Math.min(thisMaxZ, otherMaxZ);
 
         // Calculate penetration depth in each axis
         double xPenetration = overlapMaxX - overlapMinX;
@@ -443,17 +806,18 @@ public class ShipCollision {
         Vector3f separationNormal = new Vector3f(0, 0, 0);
         float penetrationDepth;
 
+        // Compare centers on each axis (sum of min and max is twice the center)
         if (xPenetration < yPenetration && xPenetration < zPenetration) {
             // Separate along X axis
-            separationNormal.x = (thisBox.getCenterX() > otherBox.getCenterX()) ? 1 : -1;
+            separationNormal.x = (thisMinX + thisMaxX > otherMinX + otherMaxX) ? 1 : -1;
             penetrationDepth = (float) xPenetration;
         } else if (yPenetration < zPenetration) {
             // Separate along Y axis
-            separationNormal.y = (thisBox.getCenterY() > otherBox.getCenterY()) ? 1 : -1;
+            separationNormal.y = (thisMinY + thisMaxY > otherMinY + otherMaxY) ? 1 : -1;
             penetrationDepth = (float) yPenetration;
         } else {
             // Separate along Z axis
-            separationNormal.z = (thisBox.getCenterZ() > otherBox.getCenterZ()) ? 1 : -1;
+            separationNormal.z = (thisMinZ + thisMaxZ > otherMinZ + otherMaxZ) ? 1 : -1;
             penetrationDepth = (float) zPenetration;
         }
 
@@ -12,7 +12,6 @@ import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.plugin.java.JavaPlugin;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.joml.*;
 
 import java.util.*;
@@ -24,7 +23,20 @@ public class ShipInstance {
     private static int IDLE_TICKS_BEFORE_STOP = 40;
     private static int IDLE_CHECK_INTERVAL = 20;
     private static float PLAYER_PROXIMITY_RADIUS = 10.0f;
-    private static float PLAYER_PROXIMITY_RADIUS_SQ = 100.0f;  // Squared for fast distance checks
+
+    // Tick LOD config (distance-based tick rate)
+    private static double LOD_FULL_DISTANCE = 48.0;
+    private static double LOD_MID_DISTANCE = 0.0;  // 0 = server view distance
+    private static int LOD_MID_INTERVAL = 4;
+    private static int LOD_FAR_INTERVAL = 20;  // 0 = frozen
+    private static int LOD_RECHECK_INTERVAL = 20;
+    private static boolean LOD_INTERPOLATE_DISPLAYS = true;  // Stretch display interpolation over the update interval
+    private static final int MAX_TELEPORT_DURATION = 59;  // Client limit for display teleport interpolation
+    private static final int MAX_CATCHUP_TICKS = 20;  // Cap on integrated ticks after a long pause
+    private static int COLLIDER_YAW_STEPS = 96;  // Yaw rows in the collider offset table, interpolated between (0 = exact)
+    private static int COLLIDER_TABLE_MAX_FLOATS = 256 * 1024;  // Cap on cached row floats per offset table
+    static int TERRAIN_WINDOW_PADDING = 4;  // Blocks of slack around the cached terrain window
+    static boolean SWEPT_COLLISION = true;  // Clamp moves at the first block in the way before committing them
 
     /**
      * Loads global physics config values from plugin config.
@@ -37,7 +49,16 @@ public class ShipInstance {
         IDLE_TICKS_BEFORE_STOP = cfg.getInt("physics.idle-ticks-before-stop", 40);
         IDLE_CHECK_INTERVAL = cfg.getInt("physics.idle-check-interval", 20);
         PLAYER_PROXIMITY_RADIUS = (float) cfg.getDouble("physics.player-proximity-radius", 10.0);
-        PLAYER_PROXIMITY_RADIUS_SQ = PLAYER_PROXIMITY_RADIUS * PLAYER_PROXIMITY_RADIUS;
+        LOD_FULL_DISTANCE = cfg.getDouble("physics.lod.full-distance", 48.0);
+        LOD_MID_DISTANCE = cfg.getDouble("physics.lod.mid-distance", 0.0);
+        LOD_MID_INTERVAL = java.lang.Math.max(1, cfg.getInt("physics.lod.mid-interval", 4));
+        LOD_FAR_INTERVAL = java.lang.Math.max(0, cfg.getInt("physics.lod.far-interval", 20));
+        LOD_RECHECK_INTERVAL = java.lang.Math.max(1, cfg.getInt("physics.lod.recheck-interval", 20));
+        LOD_INTERPOLATE_DISPLAYS = cfg.getBoolean("physics.lod.interpolate-displays", true);
+        COLLIDER_YAW_STEPS = java.lang.Math.max(0, cfg.getInt("physics.collider-yaw-steps", 96));
+        COLLIDER_TABLE_MAX_FLOATS = java.lang.Math.max(0, cfg.getInt("physics.collider-table-max-kb", 1024)) * 256;
+        TERRAIN_WINDOW_PADDING = java.lang.Math.max(1, cfg.getInt("physics.terrain-window-padding", 4));
+        SWEPT_COLLISION = cfg.getBoolean("physics.swept-collision", true);
     }
 
     public final JavaPlugin plugin;
@@ -50,20 +71,44 @@ public class ShipInstance {
 
     private BlockDisplay parent;
     private final List<DisplayInstance> displays = new ArrayList<>();
-    public final List<CollisionBox> colliders = new ArrayList<>();
+    public final ColliderSet colliders = new ColliderSet();
+    final DeckTracker deck = new DeckTracker(this);  // Players on deck and the collider under each
     public final Map<Integer, Inventory> storages = new HashMap<>();  // Block index -> inventory
     public final List<Shulker> seatShulkers = new ArrayList<>();  // Seat shulkers in order (index 0 = driver)
     private final Set<Integer> occupiedSeatIndices = new HashSet<>();  // Track which seats are occupied
     public Shulker leadableShulker;  // Designated lead attachment point (for prefab ships)
-    private BukkitRunnable task;
-    private BukkitRunnable idleCheckTask;
+    private boolean ticking = false;  // Set once entities are mounted; ShipTickScheduler skips the ship until then
+
+    // Scratch buffers reused by updateCollisionPositions() so the per-collider loop doesn't allocate
+    private final Matrix4f scratchRotation = new Matrix4f();
+    private final Vector3f scratchAngles = new Vector3f();
+    private float[] scratchOffsets = new float[0];  // Exact offset row for pitched ships
+    private ShipModel.ColliderOffsets colliderOffsetTable;  // Resolved on first use (see colliderOffsets)
+    private Matrix4f displayFrame;  // Static display transform prefix, built on first use (see displayFrame)
+    private final Location scratchVehicleLoc = new Location(null, 0, 0, 0);
+    private final org.bukkit.util.Vector scratchCarrierVelocity = new org.bukkit.util.Vector();
+    private boolean movingCollider;  // A carrier teleport is in progress (see setSeatOccupant)
+
+    // Phase times of the update in progress and its pending JFR event (see ShipProfiler)
+    final long[] phaseNanos = new long[ShipProfiler.PHASE_COUNT];
+    ShipEvents.ShipTickEvent tickEvent;
+
+    // Tick LOD state
+    private int lodInterval = 1;  // Server ticks between updates (0 = frozen)
+    private long lastTickAt = -1;  // Server tick of the last update (-1 = not yet ticked)
+    private long nextLodCheckAt = 0;
+    private int appliedTeleportDuration = 0;  // Teleport duration last set on the displays (0 = unknown)
 
     // Movement tracking for optimization
     private Location previousVehicleLocation;
     private float previousYaw;
     private float previousPitch;
     private int ticksSinceLastMovement = 0;
-    private boolean taskStopped = false;
+
+    // Sleep state - a sleeping ship is skipped by the scheduler until wake() is called
+    private volatile boolean sleeping = false;
+    private long nextSleepPollAt = 0;
+    private org.bukkit.util.BoundingBox hullBounds;  // World-space hull footprint captured when falling asleep
     private boolean firstTick = true; // Force first tick to update positions
 
     // Speed display optimization - only update action bar when speed changes significantly
@@ -81,15 +126,16 @@ public class ShipInstance {
     public boolean hasDriver = false;
     public boolean hasPlayersNearby = false;
 
-    // Input state tracking (set by ShipSteeringListener, read by ShipPhysics)
-    public boolean isForwardPressed = false;
-    public boolean isBackwardPressed = false;
-    public boolean isLeftPressed = false;
-    public boolean isRightPressed = false;
+    // Driver input bits, packed into one int so a packet updates them atomically
+    public static final int INPUT_FORWARD = 1;
+    public static final int INPUT_BACKWARD = 1 << 1;
+    public static final int INPUT_LEFT = 1 << 2;
+    public static final int INPUT_RIGHT = 1 << 3;
+    public static final int INPUT_JUMP = 1 << 4;    // Airship ascend
+    public static final int INPUT_SPRINT = 1 << 5;  // Airship descend
 
-    // Vertical input state for airships (set by ShipSteeringListener, read by ShipPhysics)
-    public boolean isSpacePressed = false;
-    public boolean isSprintPressed = false;
+    // Latest driver input (set by ShipSteeringListener on the network thread, read by ShipPhysics each tick)
+    private final java.util.concurrent.atomic.AtomicInteger input = new java.util.concurrent.atomic.AtomicInteger();
 
     // Airship mode flag - determined by density at construction
     public final boolean isAirship;
@@ -144,9 +190,9 @@ public class ShipInstance {
      * @return A new ShipInstance ready for entity recovery, or null on error
      */
     public static ShipInstance fromState(JavaPlugin plugin, ShipPersistence.ShipState state, ShipModel model) {
-        // Deserialize banner if present
-        ItemStack customBanner = null;
-        if (state.bannerData != null) {
+        // Deserialize banner if present (a state built from a queued save carries it already)
+        ItemStack customBanner = state.banner;
+        if (customBanner == null && state.bannerData != null) {
             try {
                 byte[] bytes = Base64.getDecoder().decode(state.bannerData);
                 customBanner = ItemStack.deserializeBytes(bytes);
@@ -168,8 +214,12 @@ public class ShipInstance {
             instance.sourceModel = model;
         }
 
-        // Restore inventory contents
-        if (!state.inventoryData.isEmpty()) {
+        // Restore inventory contents (already deserialized in a state built from a queued save)
+        if (state.inventories != null) {
+            for (Map.Entry<Integer, ItemStack[]> entry : state.inventories.entrySet()) {
+                restoreStorage(instance, model, entry.getKey(), entry.getValue());
+            }
+        } else if (!state.inventoryData.isEmpty()) {
             for (Map.Entry<Integer, String> entry : state.inventoryData.entrySet()) {
                 try {
                     String[] itemStrings = entry.getValue().split("\\|", -1);
@@ -182,17 +232,7 @@ public class ShipInstance {
                             items[i] = null;
                         }
                     }
-                    // Create inventory for this block if it exists in model
-                    int blockIdx = entry.getKey();
-                    if (blockIdx < model.parts.size()) {
-                        ShipModel.ModelPart part = model.parts.get(blockIdx);
-                        if (part.storage != null) {
-                            Inventory storage = Bukkit.createInventory(null, part.storage.type.slots,
-                                net.kyori.adventure.text.Component.text(part.storage.name));
-                            storage.setContents(items);
-                            instance.storages.put(blockIdx, storage);
-                        }
-                    }
+                    restoreStorage(instance, model, entry.getKey(), items);
                 } catch (Exception e) {
                     plugin.getLogger().warning("Failed to deserialize inventory at block " + entry.getKey() + ": " + e.getMessage());
                 }
@@ -202,6 +242,21 @@ public class ShipInstance {
         return instance;
     }
 
+    /**
+     * Creates the inventory for a storage block with saved contents, if the block exists in the model.
+     */
+    private static void restoreStorage(ShipInstance instance, ShipModel model, int blockIdx, ItemStack[] items) {
+        if (blockIdx < model.parts.size()) {
+            ShipModel.ModelPart part = model.parts.get(blockIdx);
+            if (part.storage != null) {
+                Inventory storage = Bukkit.createInventory(null, part.storage.type.slots,
+                    net.kyori.adventure.text.Component.text(part.storage.name));
+                storage.setContents(items);
+                instance.storages.put(blockIdx, storage);
+            }
+        }
+    }
+
     public ShipInstance(JavaPlugin plugin, String shipType, ShipModel model, Location spawnLocation, ShipCustomization customization) {
         this.plugin = plugin;
         this.shipType = shipType;
@@ -220,6 +275,9 @@ public class ShipInstance {
         this.isAirship = "airship".equalsIgnoreCase(typeValue) ||
                          ("custom".equals(shipType) && model.getDensity() < config.airDensity);
 
+        ShipEvents.EntitySpawnEvent spawnEvent = new ShipEvents.EntitySpawnEvent();
+        spawnEvent.begin();
+
         World w = spawnLocation.getWorld();
         Location base = spawnLocation.clone();
 
@@ -656,7 +714,7 @@ public class ShipInstance {
                 // Mount shulker on carrier
                 carrier.addPassenger(shulker);
 
-                colliders.add(new CollisionBox(carrier, shulker, new Matrix4f(p.local), p.collision, currentBlockIndex));
+                colliders.add(createCollisionBox(carrier, shulker, p, currentBlockIndex));
 
                 // Store leadable shulker reference for prefab ship lead attachment (single lead point)
                 // Custom ships use per-fence attachment via leadable tags instead
@@ -715,41 +773,28 @@ public class ShipInstance {
             displays.add(new DisplayInstance(child, new Matrix4f(p.local)));
         }
 
+        spawnEvent.end();
+        if (spawnEvent.shouldCommit()) {
+            spawnEvent.setShip(this);
+            spawnEvent.commit();
+        }
+
         // Wait 1 tick for entities to spawn, then mount and start ticking
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                // Mount children to parent
-                for (DisplayInstance di : displays) {
-                    parent.addPassenger(di.entity);
-                }
-                // Mount parent to vehicle (ArmorStand)
-                vehicle.addPassenger(parent);
-
-                // Position collision boxes immediately before starting tick task
-                // This prevents them from appearing to "jump" when player first interacts
-                updateCollisionPositions();
-
-                // Start tick loop
-                task = new BukkitRunnable() {
-                    @Override
-                    public void run() {
-                        // Check if chunk is loaded - if not, skip tick but don't destroy
-                        Location loc = vehicle.getLocation();
-                        if (!loc.isChunkLoaded()) {
-                            return; // Chunk unloaded, suspend ship but don't destroy
-                        }
-                        if (vehicle.isDead() || !vehicle.isValid()) {
-                            destroy();
-                            cancel();
-                            return;
-                        }
-                        tick();
-                    }
-                };
-                task.runTaskTimer(plugin, 0L, 1L);
+        ShipScheduling.runLater(plugin, vehicle, 1L, () -> {
+            // Mount children to parent
+            for (DisplayInstance di : displays) {
+                parent.addPassenger(di.entity);
             }
-        }.runTaskLater(plugin, 1L);
+            // Mount parent to vehicle (ArmorStand)
+            vehicle.addPassenger(parent);
+
+            // Position collision boxes immediately before ticking starts
+            // This prevents them from appearing to "jump" when player first interacts
+            updateCollisionPositions();
+
+            // Hand over to ShipTickScheduler
+            resumeTicking();
+        });
     }
 
     /**
@@ -760,23 +805,74 @@ public class ShipInstance {
      * Therefore, we must explicitly apply the vehicle's rotation to display transforms.
      */
     private Matrix4f buildRotationMatrix() {
-        float yaw = vehicle.getYaw();
-        float pitch = vehicle.getPitch();
+        return model.rotationFor(vehicle.getYaw(), vehicle.getPitch(), new Matrix4f(), new Vector3f());
+    }
 
-        Vector3f vehicleRot = new Vector3f(
-            (float) java.lang.Math.toRadians(-yaw),
-            (float) java.lang.Math.toRadians(-pitch),
-            0f
-        );
-        Vector3f transformedRot = model.rotationTransform.transform(vehicleRot, new Vector3f());
-        transformedRot.x += (float) java.lang.Math.toRadians(model.initialRotation.x);
-        transformedRot.y += (float) java.lang.Math.toRadians(model.initialRotation.y);
-        transformedRot.z += (float) java.lang.Math.toRadians(model.initialRotation.z);
-
-        return new Matrix4f()
-            .rotateY(transformedRot.x)
-            .rotateX(transformedRot.y)
-            .rotateZ(transformedRot.z);
+    /**
+     * The model's collider offset table for this ship's collision translation
+     * (model collision offset plus the custom ship offset from config).
+     */
+    ShipModel.ColliderOffsets colliderOffsets() {
+        if (colliderOffsetTable == null) {
+            Vector3f translation = new Vector3f(model.collisionOffset);
+            if ("custom".equals(shipType)) {
+                translation.add(config.customCollisionOffset);
+            }
+            colliderOffsetTable = model.colliderOffsets(translation, COLLIDER_YAW_STEPS, COLLIDER_TABLE_MAX_FLOATS);
+        }
+        return colliderOffsetTable;
+    }
+
+    /**
+     * Looks up the vehicle-relative offsets of all colliders for the vehicle's current orientation.
+     * Index with CollisionBox.offsetSlot: x at [slot], y at [count + slot], z at [2 * count + slot].
+     */
+    private float[] currentColliderOffsets(ShipModel.ColliderOffsets offsets) {
+        if (scratchOffsets.length < 3 * offsets.count) {
+            scratchOffsets = new float[3 * offsets.count];
+        }
+        return offsets.row(vehicle.getYaw(), vehicle.getPitch(), scratchOffsets, scratchRotation, scratchAngles);
+    }
+
+    /**
+     * Creates a collision box and resolves its seat and leadable roles from the model.
+     */
+    private CollisionBox createCollisionBox(Entity carrier, Shulker shulker, ShipModel.ModelPart part, int blockIndex) {
+        CollisionBox cb = new CollisionBox(carrier, shulker, new Matrix4f(part.local), part.collision, blockIndex);
+        for (int seatIdx = 0; seatIdx < model.seats.size(); seatIdx++) {
+            if (model.seats.get(seatIdx).blockIndex == blockIndex) {
+                cb.seatIndex = seatIdx;
+                break;
+            }
+        }
+        cb.leadable = Boolean.TRUE.equals(part.rawYaml.get("leadable"));
+        cb.offsetSlot = colliderOffsets().slotOf(blockIndex);
+        EntityShipIndex.put(carrier, this, EntityShipIndex.Role.CARRIER, blockIndex, -1);
+        EntityShipIndex.put(shulker, this, EntityShipIndex.Role.COLLIDER, blockIndex, cb.seatIndex);
+        return cb;
+    }
+
+    /**
+     * Drops this ship's colliders from the entity index. Call before clearing the collider set.
+     */
+    private void unindexColliders() {
+        for (CollisionBox cb : colliders) {
+            EntityShipIndex.remove(cb.carrier, this);
+            EntityShipIndex.remove(cb.entity, this);
+        }
+    }
+
+    /**
+     * Records the player now riding a seat collider, or null once it is empty. Called from mount and
+     * dismount events on the thread that owns the seat; dismounts caused by collider sync's own teleports
+     * are ignored, since collider sync re-seats those players.
+     */
+    public void setSeatOccupant(Entity seat, Player player) {
+        if (player == null && movingCollider) return;
+        int i = colliders.indexOf(seat);
+        if (i >= 0 && colliders.hasFlag(i, ColliderSet.FLAG_SEAT)) {
+            colliders.seated[i] = player;
+        }
     }
 
     /**
@@ -799,7 +895,8 @@ public class ShipInstance {
             float dx = (float) java.lang.Math.abs(center.getX() - cbLoc.getX());
             float dy = (float) java.lang.Math.abs(center.getY() - cbLoc.getY());
             float dz = (float) java.lang.Math.abs(center.getZ() - cbLoc.getZ());
-            float dist = java.lang.Math.max(dx, java.lang.Math.max(dy, dz));
+            // Merged colliders are bigger than a block; count the extra size so the radius still covers them
+            float dist = java.lang.Math.max(dx, java.lang.Math.max(dy, dz)) + java.lang.Math.max(0.0f, cb.config.size - 1.0f);
             if (dist > maxDist) maxDist = dist;
         }
         // Add padding (2.0 for original getNearbyEntities radius per collider)
@@ -807,130 +904,288 @@ public class ShipInstance {
     }
 
     public void updateCollisionPositions() {
-        Location currentVehicleLoc = vehicle.getLocation();
+        updateCollisionPositions(1);
+    }
+
+    /**
+     * Syncs collider carriers with the vehicle.
+     * @param elapsedTicks Ticks since the previous sync, used to convert displacement to per-tick velocity
+     */
+    private void updateCollisionPositions(int elapsedTicks) {
+        // Runs every tick for every collider, so all intermediates live in per-ship scratch buffers
+        Location currentVehicleLoc = vehicle.getLocation(scratchVehicleLoc);
+        double vx = currentVehicleLoc.getX();
+        double vy = currentVehicleLoc.getY();
+        double vz = currentVehicleLoc.getZ();
 
         // Calculate collision detection radius once (on first call after colliders are spawned)
         if (collisionRadius < 0) {
             calculateCollisionRadius();
         }
 
-        // Optimization: Check if any players are nearby using player list + squared distance
-        // Much faster than getNearbyEntities which searches all entity types in a large area
-        hasPlayersNearby = false;
-        for (Player player : currentVehicleLoc.getWorld().getPlayers()) {
-            if (player.getLocation().distanceSquared(currentVehicleLoc) <= PLAYER_PROXIMITY_RADIUS_SQ) {
-                hasPlayersNearby = true;
-                break;
-            }
+        // Any players nearby? Only the shared player grid cells around the vehicle are checked
+        hasPlayersNearby = PlayerGrid.anyWithin(currentVehicleLoc.getWorld(), vx, vy, vz, PLAYER_PROXIMITY_RADIUS);
+
+        // Match players on deck to the collider under their feet, before the colliders move
+        if (hasPlayersNearby) {
+            deck.update(currentVehicleLoc, collisionRadius);
+        } else {
+            deck.clear();
         }
 
-        // Build rotation matrix including vehicle's current orientation
-        Matrix4f R_full = buildRotationMatrix();
+        // Collider offsets for the current orientation (rotation * (collision offset + block + per-block offset))
+        ShipModel.ColliderOffsets offsets = colliderOffsets();
+        float[] row = currentColliderOffsets(offsets);
+        int n = offsets.count;
 
-        // Build translation matrix for collision offset
-        Matrix4f T_collision = new Matrix4f().translation(model.collisionOffset);
+        // Carriers never rotate, so a carrier's target (reused every sync) only ever changes position
+        World world = currentVehicleLoc.getWorld();
 
-        // Add custom ship collision offset from config
-        if ("custom".equals(shipType)) {
-            T_collision.translate(config.customCollisionOffset);
-        }
+        // Update collider (Interaction carrier + Shulker) positions, walking the collider arrays in order
+        ColliderSet set = colliders;
+        for (int i = 0, count = set.size(); i < count; i++) {
+            // Offset of the carrier from the vehicle (table lookup)
+            int slot = set.offsetSlots[i];
+            float dx = row[slot];
+            float dy = row[n + slot];
+            float dz = row[2 * n + slot];
 
-        // Update collider (Interaction carrier + Shulker) positions
-        for (CollisionBox cb : colliders) {
-            // Calculate world transformation for this collider using collision offset
-            Matrix4f world = new Matrix4f(R_full).mul(T_collision).mul(cb.base);
-
-            // Extract position from transformation matrix
-            Vector3f offset = new Vector3f();
-            world.getTranslation(offset);
-
-            // Apply per-block collision offset (rotated by R_full to follow ship orientation)
-            Vector3f perBlockOffset = new Vector3f(cb.config.offset);
-            R_full.transformPosition(perBlockOffset);
-
-            // Calculate current world position (base position + block offset + per-block offset)
-            Vector3f currentWorldPos = new Vector3f(
-                (float) currentVehicleLoc.getX() + offset.x + perBlockOffset.x,
-                (float) currentVehicleLoc.getY() + offset.y + perBlockOffset.y,
-                (float) currentVehicleLoc.getZ() + offset.z + perBlockOffset.z
-            );
+            // Calculate current world position
+            float x = (float) vx + dx;
+            float y = (float) vy + dy;
+            float z = (float) vz + dz;
 
             // Calculate velocity (change in position since last tick)
-            Vector3f velocity = new Vector3f(currentWorldPos).sub(cb.previousWorldPos);
+            float velX = x - set.prevX[i];
+            float velY = y - set.prevY[i];
+            float velZ = z - set.prevZ[i];
+            if (elapsedTicks > 1) {
+                velX /= elapsedTicks;
+                velY /= elapsedTicks;
+                velZ /= elapsedTicks;
+            }
 
-            // Check if this is the first tick (previousWorldPos was initialized to 0,0,0)
+            // Check if this collider has never been positioned
             // If so, skip velocity application to avoid massive initial velocity spike
-            boolean isFirstTick = cb.previousWorldPos.x == 0 && cb.previousWorldPos.y == 0 && cb.previousWorldPos.z == 0;
+            boolean isFirstTick = !set.hasFlag(i, ColliderSet.FLAG_PLACED);
 
             // Teleport carrier to world position (including per-block offset)
             // The shulker rides as passenger and follows smoothly (ArmorStand) or choppily (Interaction)
             // Note: Carriers never rotate - only position changes (AABBs don't rotate, shulkers inherit zero rotation)
-            Location carrierLoc = currentVehicleLoc.clone().add(
-                offset.x + perBlockOffset.x,
-                offset.y + perBlockOffset.y,
-                offset.z + perBlockOffset.z
-            );
-            carrierLoc.setYaw(0);
-            carrierLoc.setPitch(0);
+            Location target = set.targets[i];
+            if (target.getWorld() != world) {
+                target.setWorld(world);  // Only on first use or a world change: setWorld allocates a reference
+            }
+            target.setX(vx + dx);
+            target.setY(vy + dy);
+            target.setZ(vz + dz);
 
             // Only teleport if position actually changed (avoids collision jitter when idle)
-            float velocityMagnitude = velocity.length();
-
-            // BEFORE teleport: capture player if this is a seat shulker
-            // (teleporting carriers can sometimes dismount nested passengers)
-            Player seatedPlayer = null;
-            if (seatShulkers.contains(cb.entity)) {
-                for (Entity passenger : cb.entity.getPassengers()) {
-                    if (passenger instanceof Player p) {
-                        seatedPlayer = p;
-                        break;
-                    }
+            boolean moved = isFirstTick || velX * velX + velY * velY + velZ * velZ > 0.001f * 0.001f;
+            Entity carrier = set.carriers[i];
+            Shulker shulker = set.shulkers[i];
+
+            // Folia: a ship straddling a region border can have carriers owned by another region.
+            // Hand those moves to the owning region and skip the seat/deck work we can't do from here.
+            if (!ShipScheduling.isOwnedByCurrentRegion(carrier)) {
+                if (moved) {
+                    ShipScheduling.run(plugin, carrier, set.remoteMoves[i]);
                 }
+                set.setPrevious(i, x, y, z);
+                continue;
             }
 
-            if (isFirstTick || velocityMagnitude > 0.001) {
-                cb.carrier.teleport(carrierLoc);
+            // Player on this seat, if any, so they can be re-seated if the teleport below dismounts them
+            // (tracked from mount/dismount events rather than read from the shulker's passenger list)
+            Player seatedPlayer = set.seated[i];
+            if (seatedPlayer != null && !seatedPlayer.isValid()) {
+                set.seated[i] = seatedPlayer = null;
+            }
+
+            if (moved) {
+                // Dismounts fired by this teleport are undone below, so they must not clear the seat
+                movingCollider = true;
+                try {
+                    ShipScheduling.teleportTo(carrier, target);
+                } finally {
+                    movingCollider = false;
+                }
 
                 // Set carrier velocity for better client/server sync (skip on first tick)
                 if (!isFirstTick) {
-                    cb.carrier.setVelocity(new org.bukkit.util.Vector(velocity.x, velocity.y, velocity.z));
+                    carrier.setVelocity(scratchCarrierVelocity.setX(velX).setY(velY).setZ(velZ));
                 }
             }
 
             // AFTER teleport: re-mount player if they were dismounted
-            if (seatedPlayer != null && !cb.entity.getPassengers().contains(seatedPlayer)) {
-                final Player playerToRemount = seatedPlayer;
-                final Shulker seat = cb.entity;
+            if (seatedPlayer != null && !shulker.equals(seatedPlayer.getVehicle())) {
                 // Delay by 1 tick to ensure teleport fully completes
-                new BukkitRunnable() {
-                    @Override
-                    public void run() {
-                        if (playerToRemount.isValid() && seat.isValid()) {
-                            seat.addPassenger(playerToRemount);
-                        }
-                    }
-                }.runTaskLater(plugin, 1L);
+                ShipScheduling.runLater(plugin, shulker, 1L, set.remounts[i]);
             }
 
-            // Apply velocity to players standing on this shulker
-            physics.applyDeckPhysics(cb, velocity, isFirstTick);
-
             // Store current position for next tick
-            cb.previousWorldPos.set(currentWorldPos);
+            set.setPrevious(i, x, y, z);
         }
 
+        // Keep players on deck from sinking into the colliders that just moved under them
+        physics.applyDeckPhysics();
+
         // Note: Seats are now the shulkers themselves (no separate seat ArmorStands to update)
         // Shulker positions are already updated in the collision box loop above
     }
 
-    void tick() {
+    /**
+     * Called once per server tick by ShipTickScheduler to decide whether this ship updates now.
+     * Skips ships that are still spawning, suspended, asleep, or sitting in an unloaded chunk,
+     * and ships on a reduced LOD rate whose next update isn't due yet.
+     *
+     * @return Number of elapsed ticks to integrate, or 0 if the ship should not update this tick
+     */
+    int prepareTick(long serverTick) {
+        if (!ticking) return 0;
+        if (sleeping) {
+            // Slow safety poll for movement caused by something other than a wake trigger
+            if (IDLE_CHECK_INTERVAL <= 0 || serverTick < nextSleepPollAt) return 0;
+            nextSleepPollAt = serverTick + IDLE_CHECK_INTERVAL;
+            if (!vehicle.isValid() || hasMovedSinceLastTick(vehicle.getLocation(), vehicle.getYaw(), vehicle.getPitch())) {
+                wake();
+            } else {
+                return 0;
+            }
+        }
+        Location loc = vehicle.getLocation();
+        if (!loc.isChunkLoaded()) {
+            return 0; // Chunk unloaded, suspend ship but don't destroy
+        }
+        if (vehicle.isDead() || !vehicle.isValid()) {
+            destroy();
+            return 0;
+        }
+
+        if (serverTick >= nextLodCheckAt) {
+            lodInterval = calculateLodInterval(loc);
+            nextLodCheckAt = serverTick + LOD_RECHECK_INTERVAL;
+        }
+        if (lastTickAt < 0) {
+            lastTickAt = serverTick - 1;
+        }
+
+        long elapsed = serverTick - lastTickAt;
+        if (lodInterval == 0 || elapsed < lodInterval) {
+            return 0;  // Frozen, or not due yet
+        }
+        lastTickAt = serverTick;
+        return (int) java.lang.Math.min(elapsed, MAX_CATCHUP_TICKS);
+    }
+
+    private void resumeTicking() {
+        appliedTeleportDuration = 0;  // Entities were (re)spawned or recovered
+        lastTickAt = -1;
+        nextLodCheckAt = 0;
+        sleeping = false;
+        ticking = true;
+    }
+
+    /**
+     * Wakes a sleeping ship so it resumes ticking on the next scheduler pass.
+     * Safe to call from any wake trigger (steering packets, damage, block changes, leads): the tick
+     * state it resets is only written by the thread that owns the ship, so other threads hand it over.
+     */
+    public void wake() {
+        if (!sleeping) return;
+        if (!ShipScheduling.isOwnedByCurrentThread(vehicle)) {
+            ShipScheduling.runLater(plugin, vehicle, 1L, this::wake);
+            return;
+        }
+        ticksSinceLastMovement = 0;
+        lastTickAt = -1;  // Ship was at rest, so don't integrate the time spent asleep
+        nextLodCheckAt = 0;
+        sleeping = false;
+    }
+
+    public boolean isSleeping() {
+        return sleeping;
+    }
+
+    /**
+     * Returns the hull footprint captured when the ship fell asleep, or null while awake.
+     * Block and fluid changes inside these bounds wake the ship.
+     */
+    public org.bukkit.util.BoundingBox getHullBounds() {
+        return sleeping ? hullBounds : null;
+    }
+
+    /**
+     * A ship may only sleep when nothing would change if it kept ticking:
+     * no driver, no residual motion or collision force, and full health.
+     */
+    private boolean canSleep() {
+        if (hasDriver || firstTick) return false;
+        if (physics.currentSpeed != 0.0f || physics.currentYVelocity != 0.0f) return false;
+        if (java.lang.Math.abs(physics.currentRotationVelocity) > 0.01f) return false;
+        if (physics.collisionForce.lengthSquared() > 0.0f) return false;
+        double maxHealth = vehicle.getAttribute(org.bukkit.attribute.Attribute.MAX_HEALTH).getBaseValue();
+        return vehicle.getHealth() >= maxHealth;
+    }
+
+    private void sleep() {
+        Location loc = vehicle.getLocation();
+        double reach = java.lang.Math.max(collisionRadius, 1.0f);
+        // Extend a block below the hull so water or ground changes beneath it are caught
+        hullBounds = new org.bukkit.util.BoundingBox(
+            loc.getX() - reach, loc.getY() + model.minY - 2.0, loc.getZ() - reach,
+            loc.getX() + reach, loc.getY() + model.maxY + 1.0, loc.getZ() + reach
+        );
+        nextSleepPollAt = lastTickAt + IDLE_CHECK_INTERVAL;  // lastTickAt is the current server tick here
+        sleeping = true;
+        collision.publishWatchedBounds();
+    }
+
+    /**
+     * Picks the tick interval for this ship from the distance to the nearest player.
+     * Driven ships and ships that haven't settled their first tick always run at full rate.
+     */
+    private int calculateLodInterval(Location loc) {
+        if (hasDriver || firstTick) return 1;
+
+        // Measure from the hull edge rather than the vehicle so large ships don't drop tiers early
+        double hullReach = java.lang.Math.max(collisionRadius, 0);
+        double fullDist = LOD_FULL_DISTANCE + hullReach;
+        double midDist = (LOD_MID_DISTANCE > 0 ? LOD_MID_DISTANCE : Bukkit.getViewDistance() * 16.0) + hullReach;
+
+        // Players further than the mid tier don't change the outcome, so the grid search stops there
+        double nearestSq = PlayerGrid.nearestDistanceSq(loc.getWorld(), loc.getX(), loc.getY(), loc.getZ(),
+            java.lang.Math.max(fullDist, midDist));
+        if (nearestSq <= fullDist * fullDist) return 1;
+        if (nearestSq <= midDist * midDist) return LOD_MID_INTERVAL;
+
+        return LOD_FAR_INTERVAL;
+    }
+
+    public int getLodInterval() {
+        return lodInterval;
+    }
+
+    /**
+     * Number of entities making up this ship: vehicle, parent display, child displays,
+     * and a carrier plus shulker per collider.
+     */
+    public int getEntityCount() {
+        return 1 + (parent != null ? 1 : 0) + displays.size() + colliders.size() * 2;
+    }
+
+    /**
+     * Runs a full update on the calling thread: health, steering, collision detection, physics,
+     * collision response, then collider and display sync.
+     */
+    void tick(int elapsedTicks) {
         // Health regeneration (20 ticks per second)
         if (vehicle.isValid() && !vehicle.isDead()) {
             double currentHealth = vehicle.getHealth();
             double maxHealth = vehicle.getAttribute(org.bukkit.attribute.Attribute.MAX_HEALTH).getBaseValue();
 
             // Regenerate health per tick (divide by 20 since this runs 20 times per second)
-            double regenPerTick = model.healthRegenPerSecond / 20.0;
+            double regenPerTick = model.healthRegenPerSecond / 20.0 * elapsedTicks;
             double newHealth = java.lang.Math.min(currentHealth + regenPerTick, maxHealth);
             vehicle.setHealth(newHealth);
 
@@ -942,11 +1197,38 @@ public class ShipInstance {
         }
 
         // Apply custom physics and steering (runs every tick)
+        boolean profiling = ShipProfiler.isTiming();
+        if (profiling && ShipEvents.isTickEnabled()) {
+            tickEvent = new ShipEvents.ShipTickEvent();
+            tickEvent.begin();
+        }
+        long t = profiling ? System.nanoTime() : 0;
         handleSteeringInput();
+        if (profiling) t = ShipProfiler.lap(this, ShipProfiler.Phase.STEERING, t);
         collision.detect();  // Detect collisions and accumulate forces
-        physics.update();    // Apply physics (movement, rotation, buoyancy)
+        if (profiling) t = ShipProfiler.lap(this, ShipProfiler.Phase.COLLISION_DETECT, t);
+        physics.update(elapsedTicks);  // Movement, rotation, buoyancy
+        if (profiling) t = ShipProfiler.lap(this, ShipProfiler.Phase.PHYSICS, t);
         collision.applyResponse();  // Apply collision response
-        updateCollisionPositions();  // Sync collision boxes with vehicle BEFORE movement check
+        if (profiling) t = ShipProfiler.lap(this, ShipProfiler.Phase.COLLISION_RESPONSE, t);
+        long allocated = ShipProfiler.isEnabled() ? ShipProfiler.allocatedBytes() : -1;
+        updateCollisionPositions(elapsedTicks);  // Sync collision boxes with vehicle BEFORE movement check
+        if (allocated >= 0) {
+            ShipProfiler.countColliderSyncAllocation(this, ShipProfiler.allocatedBytes() - allocated);
+        }
+        if (profiling) t = ShipProfiler.lap(this, ShipProfiler.Phase.COLLIDER_SYNC, t);
+
+        syncDisplays(elapsedTicks);
+        if (profiling) {
+            ShipProfiler.lap(this, ShipProfiler.Phase.DISPLAY_SYNC, t);
+            ShipProfiler.endUpdate(this, elapsedTicks);
+        }
+    }
+
+    /**
+     * Movement check, idle/sleep and chunk tracking, then display transforms if the ship moved.
+     */
+    private void syncDisplays(int elapsedTicks) {
 
         // Get current vehicle state
         Location currentVehicleLoc = vehicle.getLocation();
@@ -958,14 +1240,13 @@ public class ShipInstance {
 
         if (!hasMoved && !firstTick) {
             // Ship hasn't moved, increment idle counter
-            ticksSinceLastMovement++;
+            ticksSinceLastMovement += elapsedTicks;
 
-            // If idle for too long, stop the task (but keep running physics)
-            if (ticksSinceLastMovement >= IDLE_TICKS_BEFORE_STOP && !taskStopped) {
-                // Note: We don't stop the task anymore since we need physics to run
-                // Instead, we just skip display updates below
+            // Idle for long enough and fully at rest - stop ticking until a wake trigger fires
+            if (ticksSinceLastMovement >= IDLE_TICKS_BEFORE_STOP && canSleep()) {
+                sleep();
             }
-            // Skip display/collision updates but continue physics
+            // Skip display updates
             return;
         }
 
@@ -986,6 +1267,7 @@ public class ShipInstance {
                 worldData.updateChunkIndex(currentVehicleLoc.getWorld(), this.id,
                     currentChunkX, currentChunkZ, newChunkX, newChunkZ);
             }
+            ShipRegistry.updateChunk(this, currentVehicleLoc.getWorld(), newChunkX, newChunkZ);
             currentChunkX = newChunkX;
             currentChunkZ = newChunkZ;
         }
@@ -995,28 +1277,76 @@ public class ShipInstance {
         previousYaw = yaw;
         previousPitch = pitch;
 
-        // Build rotation matrix for initial rotation offset ONLY (not vehicle rotation)
-        // Vehicle rotation is inherited since displays are passengers of the vehicle
-        Matrix4f R_initial = new Matrix4f()
-            .rotateY((float) java.lang.Math.toRadians(model.initialRotation.x))
-            .rotateX((float) java.lang.Math.toRadians(model.initialRotation.y))
-            .rotateZ((float) java.lang.Math.toRadians(model.initialRotation.z));
+        // Match display interpolation to the update interval, then push display transforms that haven't been sent yet
+        updateTeleportDuration();
+        int skipped = pushDisplayTransforms();
+        if (ShipProfiler.isEnabled()) {
+            ShipProfiler.countDisplayUpdates(this, displays.size() - skipped, skipped);
+        }
+    }
 
-        // Build translation matrix for position offset (in local space)
-        Matrix4f T = new Matrix4f().translation(model.positionOffset);
+    /**
+     * Static part of every display's transformation: R_initial * T_display.
+     * Only the initial rotation offset is applied (not vehicle rotation), since vehicle
+     * rotation is inherited by the displays as passengers of the vehicle.
+     */
+    private Matrix4f displayFrame() {
+        if (displayFrame == null) {
+            // Build rotation matrix for initial rotation offset ONLY (not vehicle rotation)
+            Matrix4f frame = new Matrix4f()
+                .rotateY((float) java.lang.Math.toRadians(model.initialRotation.x))
+                .rotateX((float) java.lang.Math.toRadians(model.initialRotation.y))
+                .rotateZ((float) java.lang.Math.toRadians(model.initialRotation.z));
+
+            // Translation for position offset (in local space), plus custom ship display offset from config
+            frame.translate(model.positionOffset);
+            if ("custom".equals(shipType)) {
+                frame.translate(config.customDisplayOffset);
+            }
+            displayFrame = frame;
+        }
+        return displayFrame;
+    }
 
-        // Add custom ship display offset from config
-        Matrix4f T_display = new Matrix4f(T);
-        if ("custom".equals(shipType)) {
-            T_display.translate(config.customDisplayOffset);
+    /**
+     * Sets the parent and child displays' teleport duration to the ship's update interval, so clients
+     * interpolate position and rotation across the whole gap between sparse LOD updates instead of
+     * snapping after one tick. Only sent when the interval changes, not during steady motion.
+     */
+    private void updateTeleportDuration() {
+        int duration = LOD_INTERPOLATE_DISPLAYS
+            ? java.lang.Math.max(1, java.lang.Math.min(lodInterval, MAX_TELEPORT_DURATION))
+            : 1;
+        if (duration == appliedTeleportDuration) return;
+
+        if (parent != null) {
+            parent.setTeleportDuration(duration);
         }
+        for (DisplayInstance di : displays) {
+            di.entity.setTeleportDuration(duration);
+        }
+        appliedTeleportDuration = duration;
+    }
 
-        // Update each child's transformation: R_initial * T_display * display.base
-        // Only apply static rotations - vehicle rotation is inherited
+    /**
+     * Sends each display's transformation (display frame * display.base) if it is dirty.
+     * None of the inputs change while the ship moves, so each display is sent once
+     * after it is spawned or recovered and skipped from then on.
+     *
+     * @return Number of displays that were already up to date
+     */
+    private int pushDisplayTransforms() {
+        Matrix4f frame = displayFrame();
+        int skipped = 0;
         for (DisplayInstance di : displays) {
-            Matrix4f world = new Matrix4f(R_initial).mul(T_display).mul(di.base);
-            di.entity.setTransformationMatrix(world);
+            if (!di.dirty) {
+                skipped++;
+                continue;
+            }
+            di.entity.setTransformationMatrix(di.transform.set(frame).mul(di.base));
+            di.dirty = false;
         }
+        return skipped;
     }
 
     private void handleSteeringInput() {
@@ -1039,10 +1369,15 @@ public class ShipInstance {
 
         if (player == null) {
             hasDriver = false;
+            setInput(0);  // Don't keep steering with the last keys a departed driver held
             return;
         }
 
         hasDriver = true;
+        // Keeps the driver lookup right even if the player was seated without a mount event (e.g. chunk recovery)
+        if (ShipRegistry.byDriver(player) != this) {
+            ShipRegistry.setDriver(player, this);
+        }
 
         // NOTE: Actual WASD input detection is handled by ShipSteeringListener (ProtocolLib)
         // This method just displays current speed to the player
@@ -1077,18 +1412,17 @@ public class ShipInstance {
         player.sendActionBar(net.kyori.adventure.text.Component.text(bar.toString()));
     }
 
-    // Set input state from ShipSteeringListener
-    public void setInputState(boolean forward, boolean backward, boolean left, boolean right) {
-        this.isForwardPressed = forward;
-        this.isBackwardPressed = backward;
-        this.isLeftPressed = left;
-        this.isRightPressed = right;
+    /**
+     * Stores the driver's latest input (INPUT_* bits). Safe to call from any thread;
+     * the next tick picks up whatever was stored last.
+     * @return The previous input bits
+     */
+    public int setInput(int bits) {
+        return input.getAndSet(bits);
     }
 
-    // Set vertical input state from ShipSteeringListener (for airships)
-    public void setVerticalInputState(boolean space, boolean sprint) {
-        this.isSpacePressed = space;
-        this.isSprintPressed = sprint;
+    public int getInput() {
+        return input.get();
     }
 
     // Helper method to normalize angle differences to -180 to 180 range
@@ -1121,65 +1455,9 @@ public class ShipInstance {
         }
     }
 
-    // Start a slower-polling task to check for movement when ship is idle
-    private void startIdleCheckTask() {
-        if (idleCheckTask != null) {
-            idleCheckTask.cancel();
-        }
-
-        idleCheckTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                // Check if chunk is loaded - if not, skip check but don't destroy
-                Location loc = vehicle.getLocation();
-                if (!loc.isChunkLoaded()) {
-                    return; // Chunk unloaded, suspend ship but don't destroy
-                }
-                if (vehicle.isDead() || !vehicle.isValid()) {
-                    destroy();
-                    cancel();
-                    return;
-                }
-
-                // Check if vehicle has moved
-                Location currentLoc = vehicle.getLocation();
-                float currentYaw = vehicle.getYaw();
-                float currentPitch = vehicle.getPitch();
-
-                if (hasMovedSinceLastTick(currentLoc, currentYaw, currentPitch)) {
-                    // Movement detected, restart main tick task
-                    cancel(); // Stop idle check task
-                    idleCheckTask = null;
-                    taskStopped = false;
-                    ticksSinceLastMovement = 0;
-
-                    task = new BukkitRunnable() {
-                        @Override
-                        public void run() {
-                            // Check if chunk is loaded - if not, skip tick but don't destroy
-                            Location tickLoc = vehicle.getLocation();
-                            if (!tickLoc.isChunkLoaded()) {
-                                return; // Chunk unloaded, suspend ship but don't destroy
-                            }
-                            if (vehicle.isDead() || !vehicle.isValid()) {
-                                destroy();
-                                cancel();
-                                return;
-                            }
-                            tick();
-                        }
-                    };
-                    task.runTaskTimer(plugin, 0L, 1L);
-                }
-            }
-        };
-        // Check periodically for movement based on config
-        idleCheckTask.runTaskTimer(plugin, (long) IDLE_CHECK_INTERVAL, (long) IDLE_CHECK_INTERVAL);
-    }
-
     /**
      * Check if ship has moved since last tick based on position and rotation changes.
-     * Used by tick() and startIdleCheckTask() for idle detection.
+     * Used by tick() for idle detection.
      */
     private boolean hasMovedSinceLastTick(Location currentLoc, float currentYaw, float currentPitch) {
         double distanceMoved = currentLoc.distance(previousVehicleLocation);
@@ -1227,6 +1505,7 @@ public class ShipInstance {
      * Marks a seat as occupied.
      */
     public void occupySeat(int seatIndex) {
+        wake();
         occupiedSeatIndices.add(seatIndex);
         if (seatIndex == driverSeatIndex) {
             hasDriver = true;
@@ -1237,6 +1516,7 @@ public class ShipInstance {
      * Marks a seat as free.
      */
     public void freeSeat(int seatIndex) {
+        wake();
         occupiedSeatIndices.remove(seatIndex);
         if (seatIndex == driverSeatIndex) {
             hasDriver = false;
@@ -1467,6 +1747,7 @@ public class ShipInstance {
         }
 
         // 4. Recover collision boxes (carriers and shulkers)
+        unindexColliders();
         colliders.clear();
         Map<Integer, Entity> carriers = new HashMap<>();
         Map<Integer, Shulker> shulkers = new HashMap<>();
@@ -1493,7 +1774,9 @@ public class ShipInstance {
                 }
                 // Get collision config from model
                 ShipModel.ModelPart part = model.parts.get(blockIdx);
-                colliders.add(new CollisionBox(entry.getValue(), s, new Matrix4f(part.local), part.collision, blockIdx));
+                CollisionBox cb = createCollisionBox(entry.getValue(), s, part, blockIdx);
+                cb.wheel = ShipTags.extractWheelLocation(s.getScoreboardTags()) != null;
+                colliders.add(cb);
             }
         }
 
@@ -1528,75 +1811,34 @@ public class ShipInstance {
         // Initialize chunk tracking for persistence
         this.currentChunkX = vehicle.getLocation().getBlockX() >> 4;
         this.currentChunkZ = vehicle.getLocation().getBlockZ() >> 4;
-        taskStopped = false;
 
         // Initialize collision box previous positions to current positions
         // This prevents first-tick velocity spike from (0,0,0) to actual position
         Location currentVehicleLoc = vehicle.getLocation();
 
-        // Build rotation matrix including vehicle's current orientation
-        Matrix4f R_full = buildRotationMatrix();
-
-        Matrix4f T_collision = new Matrix4f().translation(model.collisionOffset);
-        if ("custom".equals(shipType)) {
-            T_collision.translate(config.customCollisionOffset);
-        }
-
-        // Initialize each collider's previousWorldPos to current position
-        for (CollisionBox cb : colliders) {
-            Matrix4f world = new Matrix4f(R_full).mul(T_collision).mul(cb.base);
-            Vector3f offset = new Vector3f();
-            world.getTranslation(offset);
-
-            Vector3f perBlockOffset = new Vector3f(cb.config.offset);
-            R_full.transformPosition(perBlockOffset);
-
-            cb.previousWorldPos = new Vector3f(
-                (float) currentVehicleLoc.getX() + offset.x + perBlockOffset.x,
-                (float) currentVehicleLoc.getY() + offset.y + perBlockOffset.y,
-                (float) currentVehicleLoc.getZ() + offset.z + perBlockOffset.z
+        // Collider offsets for the vehicle's current orientation
+        ShipModel.ColliderOffsets offsets = colliderOffsets();
+        float[] row = currentColliderOffsets(offsets);
+        int n = offsets.count;
+
+        // Initialize each collider's previous position to its current position
+        for (int i = 0; i < colliders.size(); i++) {
+            int slot = colliders.offsetSlots[i];
+            colliders.setPrevious(i,
+                (float) currentVehicleLoc.getX() + row[slot],
+                (float) currentVehicleLoc.getY() + row[n + slot],
+                (float) currentVehicleLoc.getZ() + row[2 * n + slot]
             );
         }
 
-        // Position collision boxes immediately before starting tick task
+        // Position collision boxes immediately before ticking resumes
         updateCollisionPositions();
 
-        // Update display transforms to match current vehicle orientation
-        // Build rotation matrix for initial rotation offset ONLY (not vehicle rotation)
-        // Vehicle rotation is inherited since displays are passengers of the vehicle
-        Matrix4f R_initial = new Matrix4f()
-            .rotateY((float) java.lang.Math.toRadians(model.initialRotation.x))
-            .rotateX((float) java.lang.Math.toRadians(model.initialRotation.y))
-            .rotateZ((float) java.lang.Math.toRadians(model.initialRotation.z));
-
-        Matrix4f T = new Matrix4f().translation(model.positionOffset);
-        Matrix4f T_display = new Matrix4f(T);
-        if ("custom".equals(shipType)) {
-            T_display.translate(config.customDisplayOffset);
-        }
-
-        for (DisplayInstance di : displays) {
-            Matrix4f world = new Matrix4f(R_initial).mul(T_display).mul(di.base);
-            di.entity.setTransformationMatrix(world);
-        }
+        // Update display transforms (recovered displays start dirty)
+        pushDisplayTransforms();
 
-        // Start tick task
-        task = new BukkitRunnable() {
-            @Override
-            public void run() {
-                Location loc = vehicle.getLocation();
-                if (!loc.isChunkLoaded()) {
-                    return;
-                }
-                if (vehicle.isDead() || !vehicle.isValid()) {
-                    destroy();
-                    cancel();
-                    return;
-                }
-                tick();
-            }
-        };
-        task.runTaskTimer(plugin, 0L, 1L);
+        // Resume ticking via ShipTickScheduler
+        resumeTicking();
 
         plugin.getLogger().info("Recovered " + displays.size() + " displays, " + colliders.size() + " colliders for ship " + id);
         return true;
@@ -1670,25 +1912,18 @@ public class ShipInstance {
     }
 
     /**
-     * Suspends ship for chunk unload - cancels tasks but keeps entities.
+     * Suspends ship for chunk unload - stops ticking but keeps entities.
      * Entity references become stale but will be recovered on chunk load.
      */
     public void suspendForChunkUnload() {
-        if (task != null) {
-            task.cancel();
-            task = null;
-        }
-        if (idleCheckTask != null) {
-            idleCheckTask.cancel();
-            idleCheckTask = null;
-        }
+        ticking = false;
         // Clear references (they'll be stale anyway after chunk unloads)
         parent = null;
         displays.clear();
+        unindexColliders();
         colliders.clear();
         seatShulkers.clear();
         // vehicle reference is kept but may become stale
-        taskStopped = true;
     }
 
     /**
@@ -1723,18 +1958,12 @@ public class ShipInstance {
             if (cb.entity != null && cb.entity.isValid()) cb.entity.remove();
             if (cb.carrier != null && cb.carrier.isValid()) cb.carrier.remove();
         }
+        unindexColliders();
         colliders.clear();
         seatShulkers.clear();
 
-        // Cancel tick tasks (will be restarted on respawn)
-        if (task != null) {
-            task.cancel();
-            task = null;
-        }
-        if (idleCheckTask != null) {
-            idleCheckTask.cancel();
-            idleCheckTask = null;
-        }
+        // Stop ticking (will resume on respawn)
+        ticking = false;
     }
 
     /**
@@ -2019,7 +2248,7 @@ public class ShipInstance {
                     }
                 });
                 carrier.addPassenger(shulker);
-                colliders.add(new CollisionBox(carrier, shulker, new Matrix4f(p.local), p.collision, currentBlockIndex));
+                colliders.add(createCollisionBox(carrier, shulker, p, currentBlockIndex));
 
                 // Store leadable shulker reference for prefab ship lead attachment
                 if (p.rawYaml.containsKey("leadable") && Boolean.TRUE.equals(p.rawYaml.get("leadable"))) {
@@ -2067,44 +2296,24 @@ public class ShipInstance {
         }
 
         // Wait 1 tick for entities to spawn, then mount and start ticking
-        new BukkitRunnable() {
-            @Override
-            public void run() {
-                // Mount children to parent
-                for (DisplayInstance di : displays) {
-                    parent.addPassenger(di.entity);
-                }
-                // Mount parent to vehicle (ArmorStand)
-                vehicle.addPassenger(parent);
-
-                // Position collision boxes immediately before starting tick task
-                updateCollisionPositions();
-
-                // Start tick loop
-                task = new BukkitRunnable() {
-                    @Override
-                    public void run() {
-                        // Check if chunk is loaded - if not, skip tick but don't destroy
-                        Location loc = vehicle.getLocation();
-                        if (!loc.isChunkLoaded()) {
-                            return; // Chunk unloaded, suspend ship but don't destroy
-                        }
-                        if (vehicle.isDead() || !vehicle.isValid()) {
-                            destroy();
-                            cancel();
-                            return;
-                        }
-                        tick();
-                    }
-                };
-                task.runTaskTimer(plugin, 0L, 1L);
+        ShipScheduling.runLater(plugin, vehicle, 1L, () -> {
+            // Mount children to parent
+            for (DisplayInstance di : displays) {
+                parent.addPassenger(di.entity);
             }
-        }.runTaskLater(plugin, 1L);
+            // Mount parent to vehicle (ArmorStand)
+            vehicle.addPassenger(parent);
+
+            // Position collision boxes immediately before ticking resumes
+            updateCollisionPositions();
+
+            // Hand over to ShipTickScheduler
+            resumeTicking();
+        });
     }
 
     public void destroy() {
-        if (task != null) task.cancel();
-        if (idleCheckTask != null) idleCheckTask.cancel();
+        ticking = false;
         if (parent != null) {
             Entity vehicleEntity = parent.getVehicle();
             if (vehicleEntity != null) {
@@ -2121,6 +2330,7 @@ public class ShipInstance {
             cb.entity.remove();    // Remove shulker (may be a seat)
             cb.carrier.remove();   // Remove carrier (ArmorStand or Interaction)
         }
+        unindexColliders();
         // Remove root vehicle
         if (vehicle.isValid()) vehicle.remove();
         ShipRegistry.unregister(this);
@@ -2154,42 +2364,14 @@ public class ShipInstance {
 
         // Find players standing on this ship's shulkers BEFORE moving
         // Map: player -> the shulker they're standing on
-        Map<Player, Shulker> playersOnDeck = new HashMap<>();
-        String shipTag = ShipTags.shipTag(this.id);
-
-        for (Player player : loc.getWorld().getPlayers()) {
-            if (player.getLocation().distance(loc) > 32) continue;
-
-            // Check nearby entities for shulkers belonging to this ship
-            for (Entity nearby : player.getNearbyEntities(2, 2, 2)) {
-                if (!(nearby instanceof Shulker shulker)) continue;
-                if (!shulker.getScoreboardTags().contains(shipTag)) continue;
-
-                // Check if player is standing on this shulker
-                org.bukkit.util.BoundingBox playerBox = player.getBoundingBox();
-                org.bukkit.util.BoundingBox shulkerBox = shulker.getBoundingBox();
-
-                double playerFeetY = playerBox.getMinY();
-                double shulkerTopY = shulkerBox.getMaxY();
-
-                boolean withinHorizontalBounds =
-                    playerBox.getMinX() < shulkerBox.getMaxX() &&
-                    playerBox.getMaxX() > shulkerBox.getMinX() &&
-                    playerBox.getMinZ() < shulkerBox.getMaxZ() &&
-                    playerBox.getMaxZ() > shulkerBox.getMinZ();
-
-                boolean onTop = playerFeetY >= shulkerTopY - 0.1 && playerFeetY <= shulkerTopY + 0.3;
-
-                if (withinHorizontalBounds && onTop) {
-                    playersOnDeck.put(player, shulker);
-                    break; // Player can only stand on one shulker
-                }
-            }
+        if (collisionRadius < 0) {
+            calculateCollisionRadius();
         }
+        Map<Player, Shulker> playersOnDeck = deck.standing(loc, collisionRadius);
 
         // Set the new aligned location
         Location aligned = new Location(loc.getWorld(), x, y, z, snappedYaw, snappedPitch);
-        vehicle.teleport(aligned);
+        ShipScheduling.teleport(vehicle, aligned);
 
         // Update collision positions immediately so shulkers move with the ship
         updateCollisionPositions();
@@ -2201,7 +2383,7 @@ public class ShipInstance {
             Location shulkerLoc = shulker.getLocation();
             Location playerLoc = player.getLocation();
             // Place player at shulker's X/Z, on top of shulker's bounding box + 0.1
-            player.teleport(new Location(
+            ShipScheduling.teleport(player, new Location(
                 shulkerLoc.getWorld(),
                 shulkerLoc.getX(),
                 shulker.getBoundingBox().getMaxY() + 0.1,
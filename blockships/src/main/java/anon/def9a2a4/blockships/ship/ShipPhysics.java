@@ -1,15 +1,13 @@
 package anon.def9a2a4.blockships.ship;
 
 import anon.def9a2a4.blockships.ShipConfig;
-import anon.def9a2a4.blockships.ShipTags;
+import anon.def9a2a4.blockships.ShipScheduling;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.entity.Shulker;
 import org.joml.Vector3f;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -32,246 +30,360 @@ public class ShipPhysics {
         this.ship = ship;
     }
 
+    /**
+     * Immutable physics input captured on the main thread.
+     * Holds everything integrate() needs, so integration itself never touches the world.
+     */
+    static final class Snapshot {
+        final ShipConfig config;
+        final int elapsedTicks;
+
+        // Pose
+        final double x, y, z;
+        final float yaw;
+
+        // Velocities
+        final float speed, yVelocity, rotationVelocity;
+
+        // Input and presence
+        final boolean forward, backward, left, right, space, sprint;
+        final boolean hasDriver, hasPlayersNearby, isAirship;
+
+        // Sampled world state around the hull
+        final boolean belowIsWater;   // Block under the vehicle is water (extra drag)
+        final boolean hullInWater;    // Water at or just under the hull's lowest point
+        final double waterSurfaceY;   // Top of the water column (only valid when hullInWater)
+        final boolean hullOnGround;   // Solid block directly under the hull (only used when not in water)
+        final double floatOffset;     // Vehicle offset above the water surface when floating
+
+        Snapshot(ShipPhysics physics, int elapsedTicks, Location vehicleLoc, boolean belowIsWater,
+                 boolean hullInWater, double waterSurfaceY, boolean hullOnGround, double floatOffset) {
+            ShipInstance ship = physics.ship;
+            this.config = ship.config;
+            this.elapsedTicks = elapsedTicks;
+            this.x = vehicleLoc.getX();
+            this.y = vehicleLoc.getY();
+            this.z = vehicleLoc.getZ();
+            this.yaw = vehicleLoc.getYaw();
+            this.speed = physics.currentSpeed;
+            this.yVelocity = physics.currentYVelocity;
+            this.rotationVelocity = physics.currentRotationVelocity;
+            int input = ship.getInput();  // One read, so all keys come from the same packet
+            this.forward = (input & ShipInstance.INPUT_FORWARD) != 0;
+            this.backward = (input & ShipInstance.INPUT_BACKWARD) != 0;
+            this.left = (input & ShipInstance.INPUT_LEFT) != 0;
+            this.right = (input & ShipInstance.INPUT_RIGHT) != 0;
+            this.space = (input & ShipInstance.INPUT_JUMP) != 0;
+            this.sprint = (input & ShipInstance.INPUT_SPRINT) != 0;
+            this.hasDriver = ship.hasDriver;
+            this.hasPlayersNearby = ship.hasPlayersNearby;
+            this.isAirship = ship.isAirship;
+            this.belowIsWater = belowIsWater;
+            this.hullInWater = hullInWater;
+            this.waterSurfaceY = waterSurfaceY;
+            this.hullOnGround = hullOnGround;
+            this.floatOffset = floatOffset;
+        }
+    }
+
+    /**
+     * Output of integrate(): new velocities and pose, applied on the main thread by apply().
+     */
+    static final class Result {
+        float speed, yVelocity, rotationVelocity;
+        double x, y, z;
+        float yaw;
+        boolean moved, rotated;
+    }
+
     /**
      * Main physics update. Applies acceleration, drag, buoyancy, and movement.
-     * Called from ShipInstance.tick().
+     * Equivalent to capture() + integrate() + apply() on the calling thread.
+     *
+     * @param elapsedTicks Server ticks since the last update (greater than 1 for ships
+     *                     on a reduced tick rate); per-tick rates are scaled accordingly
      */
-    public void update() {
-        if (!ship.vehicle.isValid() || ship.vehicle.isDead()) return;
+    public void update(int elapsedTicks) {
+        Snapshot snapshot = capture(elapsedTicks);
+        if (snapshot != null) {
+            apply(integrate(snapshot));
+        }
+    }
+
+    /**
+     * Captures pose, velocities, input and the blocks physics reads around the hull.
+     * Must run on the main thread. Returns null if the vehicle is gone.
+     */
+    Snapshot capture(int elapsedTicks) {
+        if (!ship.vehicle.isValid() || ship.vehicle.isDead()) return null;
 
         Location vehicleLoc = ship.vehicle.getLocation();
-        Material below = vehicleLoc.clone().subtract(0, 0.5, 0).getBlock().getType();
+        boolean belowIsWater = vehicleLoc.clone().subtract(0, 0.5, 0).getBlock().getType() == Material.WATER;
+
+        // Airships don't use buoyancy, so skip the hull/water samples entirely
+        if (ship.isAirship) {
+            return new Snapshot(this, elapsedTicks, vehicleLoc, belowIsWater, false, 0, false, 0);
+        }
+
         ShipConfig config = ship.config;
 
+        // For custom ships, check water at the ship's lowest point (hull), not at the wheel
+        double hullCheckY = vehicleLoc.getY() + ship.model.minY;
+        Location hullCheckLoc = vehicleLoc.clone();
+        hullCheckLoc.setY(hullCheckY);
+        Material atHull = hullCheckLoc.getBlock().getType();
+        Material belowHull = hullCheckLoc.clone().subtract(0, 1, 0).getBlock().getType();
+        boolean inWater = (atHull == Material.WATER || belowHull == Material.WATER);
+
+        double waterSurfaceY = 0;
+        boolean hullOnGround = false;
+        if (inWater) {
+            // Find water surface Y level by scanning a fixed column
+            Location waterCheckLoc = vehicleLoc.clone();
+            int startY = (int) Math.floor(vehicleLoc.getY()) + config.waterScanAbove;
+            int endY = (int) Math.floor(hullCheckY) - config.waterScanBelow;
+            waterCheckLoc.setY(startY);
+
+            waterSurfaceY = waterCheckLoc.getY();
+
+            // Scan downward to find air-water boundary
+            for (int y = startY; y >= endY; y--) {
+                waterCheckLoc.setY(y);
+                Material blockType = waterCheckLoc.getBlock().getType();
+                if (blockType == Material.WATER) {
+                    waterSurfaceY = y + 1;
+                    break;
+                }
+            }
+        } else {
+            // Check ground at ship's lowest point (hull), not at the wheel
+            // Use small offset (0.1) so hull settles just into the ground block
+            Material belowHullBlock = hullCheckLoc.clone().subtract(0, 0.1, 0).getBlock().getType();
+            hullOnGround = belowHullBlock != Material.AIR && belowHullBlock.isSolid();
+        }
+
+        return new Snapshot(this, elapsedTicks, vehicleLoc, belowIsWater, inWater, waterSurfaceY, hullOnGround, getFloatOffset());
+    }
+
+    /**
+     * Vehicle height above the water surface when floating.
+     */
+    private double getFloatOffset() {
+        if ("custom".equals(ship.shipType) && ship.model.blockCount > 0) {
+            // Interpolation-based buoyancy
+            float meanDensity = ship.model.getDensity();
+            float airDensity = ship.config.airDensity;
+            float waterDensity = ship.config.waterDensity;
+
+            float t = (meanDensity - airDensity) / (waterDensity - airDensity);
+            float referenceY = ship.model.minY;
+            float waterlineY = referenceY + t * (ship.model.centerOfVolume.y - referenceY);
+            return -waterlineY;
+        }
+        return ship.model.waterFloatOffset;
+    }
+
+    /**
+     * Integrates one update from a snapshot. Pure math with no world or entity access.
+     */
+    static Result integrate(Snapshot s) {
+        ShipConfig config = s.config;
+        int elapsedTicks = s.elapsedTicks;
+        Result r = new Result();
+        float speed = s.speed;
+        float yVelocity = s.yVelocity;
+        float rotationVelocity = s.rotationVelocity;
+
         // Apply acceleration/deceleration based on input state
-        if (ship.isForwardPressed) {
-            currentSpeed = Math.min(currentSpeed + config.acceleration, config.maxSpeed);
-        } else if (ship.isBackwardPressed) {
-            if (currentSpeed > 0) {
-                currentSpeed = Math.max(currentSpeed - config.activeDeceleration, 0.0f);
+        if (s.forward) {
+            speed = Math.min(speed + config.acceleration * elapsedTicks, config.maxSpeed);
+        } else if (s.backward) {
+            if (speed > 0) {
+                speed = Math.max(speed - config.activeDeceleration * elapsedTicks, 0.0f);
             } else {
-                currentSpeed = Math.max(currentSpeed - config.acceleration, -config.maxSpeed);
+                speed = Math.max(speed - config.acceleration * elapsedTicks, -config.maxSpeed);
             }
         }
 
         // Apply drag based on player presence (unless actively pressing W/S)
-        if (!ship.isForwardPressed && !ship.isBackwardPressed) {
+        if (!s.forward && !s.backward) {
             float dragMultiplier;
-            if (ship.hasDriver) {
+            if (s.hasDriver) {
                 dragMultiplier = config.mountedDrag;
-            } else if (ship.hasPlayersNearby) {
+            } else if (s.hasPlayersNearby) {
                 dragMultiplier = config.unmannedDrag;
             } else {
                 dragMultiplier = config.idleDrag;
             }
 
             // Apply extra drag in water
-            if (below == Material.WATER) {
+            if (s.belowIsWater) {
                 dragMultiplier *= 0.98f;
             }
 
-            currentSpeed *= dragMultiplier;
+            // Drag compounds once per elapsed tick
+            speed *= elapsedTicks == 1 ? dragMultiplier : (float) Math.pow(dragMultiplier, elapsedTicks);
         }
 
         // Stop if speed is very small
-        if (Math.abs(currentSpeed) < config.minMovementThreshold) {
-            currentSpeed = 0.0f;
+        if (Math.abs(speed) < config.minMovementThreshold) {
+            speed = 0.0f;
         }
 
         // Calculate forward direction vector from vehicle yaw
-        float yawRad = (float) Math.toRadians(-ship.vehicle.getYaw());
+        float yawRad = (float) Math.toRadians(-s.yaw);
         double forwardX = Math.sin(yawRad);
         double forwardZ = Math.cos(yawRad);
 
+        // Buoyancy target for this update (NaN when not floating)
+        double verticalTargetY = Double.NaN;
+
         // Apply vertical physics based on ship type
-        if (ship.isAirship) {
-            applyAirshipVerticalPhysics();
+        if (s.isAirship) {
+            // Airship vertical physics (no gravity/buoyancy, manual vertical control)
+            // Space to ascend, Sprint to descend
+            if (s.space) {
+                yVelocity = Math.min(yVelocity + config.liftAcceleration * elapsedTicks, config.maxVerticalSpeed);
+                if (Math.abs(speed) < config.verticalForwardNudge) {
+                    speed = config.verticalForwardNudge;
+                }
+            } else if (s.sprint) {
+                yVelocity = Math.max(yVelocity - config.descendAcceleration * elapsedTicks, -config.maxVerticalSpeed);
+                if (Math.abs(speed) < config.verticalForwardNudge) {
+                    speed = config.verticalForwardNudge;
+                }
+            } else {
+                if (!s.hasDriver) {
+                    yVelocity = 0.0f;
+                } else {
+                    yVelocity *= elapsedTicks == 1 ? config.verticalDrag : (float) Math.pow(config.verticalDrag, elapsedTicks);
+                }
+            }
+
+            if (Math.abs(yVelocity) < 0.01f) {
+                yVelocity = 0.0f;
+            }
+        } else if (s.hullInWater) {
+            // Target Y position: water surface + float offset
+            double targetY = s.waterSurfaceY + s.floatOffset;
+            double yDifference = targetY - s.y;
+
+            // Proportional approach with damping
+            if (Math.abs(yDifference) < 0.02) {
+                yVelocity = 0.0f;
+            } else {
+                float targetVelocity = (float) (yDifference * config.buoyancyStrength);
+                // Blend factor compounded over the elapsed ticks
+                float damping = elapsedTicks == 1 ? config.buoyancyDamping
+                    : 1.0f - (float) Math.pow(1.0f - config.buoyancyDamping, elapsedTicks);
+                yVelocity = yVelocity * (1.0f - damping) + targetVelocity * damping;
+                verticalTargetY = targetY;
+            }
+        } else if (!s.hullOnGround) {
+            // Fall if hull not on ground
+            yVelocity -= 0.08f * elapsedTicks;  // Gravity
         } else {
-            handleBuoyancy(vehicleLoc);
+            // Hull on solid ground
+            yVelocity = 0.0f;
         }
 
         // Move the vehicle
-        boolean hasHorizontalMovement = Math.abs(currentSpeed) > 0.001;
-        boolean hasVerticalMovement = Math.abs(currentYVelocity) > 0.001f;
-
-        if (hasHorizontalMovement || hasVerticalMovement) {
-            Location newLoc = vehicleLoc.clone();
-            if (hasHorizontalMovement) {
-                newLoc.add(forwardX * currentSpeed, 0, forwardZ * currentSpeed);
-            }
-            if (hasVerticalMovement) {
-                newLoc.add(0, currentYVelocity, 0);
+        boolean hasHorizontalMovement = Math.abs(speed) > 0.001;
+        boolean hasVerticalMovement = Math.abs(yVelocity) > 0.001f;
+
+        r.x = s.x;
+        r.y = s.y;
+        r.z = s.z;
+        if (hasHorizontalMovement) {
+            double distance = speed * elapsedTicks;
+            r.x += forwardX * distance;
+            r.z += forwardZ * distance;
+        }
+        if (hasVerticalMovement) {
+            double dy = yVelocity * elapsedTicks;
+            // Don't let a coarse step overshoot the buoyancy target
+            if (elapsedTicks > 1 && !Double.isNaN(verticalTargetY) && Math.abs(dy) > Math.abs(verticalTargetY - s.y)) {
+                dy = verticalTargetY - s.y;
             }
-            ship.vehicle.teleport(newLoc);
+            r.y += dy;
         }
+        r.moved = hasHorizontalMovement || hasVerticalMovement;
 
         // Update rotation based on input state
-        if (ship.isLeftPressed) {
-            currentRotationVelocity = Math.max(
-                currentRotationVelocity - config.rotationAcceleration,
+        if (s.left) {
+            rotationVelocity = Math.max(
+                rotationVelocity - config.rotationAcceleration * elapsedTicks,
                 -config.rotationSpeed
             );
-        } else if (ship.isRightPressed) {
-            currentRotationVelocity = Math.min(
-                currentRotationVelocity + config.rotationAcceleration,
+        } else if (s.right) {
+            rotationVelocity = Math.min(
+                rotationVelocity + config.rotationAcceleration * elapsedTicks,
                 config.rotationSpeed
             );
         } else {
             // No input - apply momentum decay
-            if (currentRotationVelocity > 0) {
-                currentRotationVelocity = Math.max(
-                    currentRotationVelocity - config.rotationDeceleration,
+            if (rotationVelocity > 0) {
+                rotationVelocity = Math.max(
+                    rotationVelocity - config.rotationDeceleration * elapsedTicks,
                     0.0f
                 );
-            } else if (currentRotationVelocity < 0) {
-                currentRotationVelocity = Math.min(
-                    currentRotationVelocity + config.rotationDeceleration,
+            } else if (rotationVelocity < 0) {
+                rotationVelocity = Math.min(
+                    rotationVelocity + config.rotationDeceleration * elapsedTicks,
                     0.0f
                 );
             }
         }
 
         // Apply rotation
-        if (Math.abs(currentRotationVelocity) > 0.01f) {
-            float newYaw = ship.vehicle.getYaw() + currentRotationVelocity;
-            Location newLoc = ship.vehicle.getLocation();
-            newLoc.setYaw(newYaw);
-            ship.vehicle.teleport(newLoc);
+        r.yaw = s.yaw;
+        if (Math.abs(rotationVelocity) > 0.01f) {
+            r.yaw = s.yaw + rotationVelocity * elapsedTicks;
+            r.rotated = true;
         }
-    }
-
-    /**
-     * Handle buoyancy physics for water-based ships.
-     */
-    private void handleBuoyancy(Location vehicleLoc) {
-        ShipConfig config = ship.config;
-        Material below = vehicleLoc.clone().subtract(0, 0.5, 0).getBlock().getType();
-
-        // For custom ships, check water at the ship's lowest point (hull), not at the wheel
-        double hullCheckY = vehicleLoc.getY() + ship.model.minY;
-        Location hullCheckLoc = vehicleLoc.clone();
-        hullCheckLoc.setY(hullCheckY);
-        Material atHull = hullCheckLoc.getBlock().getType();
-        Material belowHull = hullCheckLoc.clone().subtract(0, 1, 0).getBlock().getType();
-        boolean inWater = (atHull == Material.WATER || belowHull == Material.WATER);
 
-        if (inWater) {
-            // Find water surface Y level by scanning a fixed column
-            Location waterCheckLoc = vehicleLoc.clone();
-            int startY = (int) Math.floor(vehicleLoc.getY()) + config.waterScanAbove;
-            int endY = (int) Math.floor(hullCheckY) - config.waterScanBelow;
-            waterCheckLoc.setY(startY);
-
-            double waterSurfaceY = waterCheckLoc.getY();
-
-            // Scan downward to find air-water boundary
-            for (int y = startY; y >= endY; y--) {
-                waterCheckLoc.setY(y);
-                Material blockType = waterCheckLoc.getBlock().getType();
-                if (blockType == Material.WATER) {
-                    waterSurfaceY = y + 1;
-                    break;
-                }
-            }
-
-            // Target Y position: water surface + float offset
-            double floatOffset;
-            if ("custom".equals(ship.shipType) && ship.model.blockCount > 0) {
-                // Interpolation-based buoyancy
-                float meanDensity = ship.model.getDensity();
-                float airDensity = config.airDensity;
-                float waterDensity = config.waterDensity;
-
-                float t = (meanDensity - airDensity) / (waterDensity - airDensity);
-                float referenceY = ship.model.minY;
-                float waterlineY = referenceY + t * (ship.model.centerOfVolume.y - referenceY);
-                floatOffset = -waterlineY;
-            } else {
-                floatOffset = ship.model.waterFloatOffset;
-            }
-
-            double targetY = waterSurfaceY + floatOffset;
-            double currentY = vehicleLoc.getY();
-            double yDifference = targetY - currentY;
-
-            // Proportional approach with damping
-            if (Math.abs(yDifference) < 0.02) {
-                currentYVelocity = 0.0f;
-            } else {
-                float targetVelocity = (float) (yDifference * config.buoyancyStrength);
-                currentYVelocity = currentYVelocity * (1.0f - config.buoyancyDamping) + targetVelocity * config.buoyancyDamping;
-            }
-        } else {
-            // Check ground at ship's lowest point (hull), not at the wheel
-            // Use small offset (0.1) so hull settles just into the ground block
-            Material belowHullBlock = hullCheckLoc.clone().subtract(0, 0.1, 0).getBlock().getType();
-            if (belowHullBlock == Material.AIR || !belowHullBlock.isSolid()) {
-                // Fall if hull not on ground
-                currentYVelocity -= 0.08f;  // Gravity
-            } else {
-                // Hull on solid ground
-                currentYVelocity = 0.0f;
-            }
-        }
+        r.speed = speed;
+        r.yVelocity = yVelocity;
+        r.rotationVelocity = rotationVelocity;
+        return r;
     }
 
     /**
-     * Apply airship vertical physics (no gravity/buoyancy, manual vertical control).
-     * Space to ascend, Sprint to descend.
+     * Commits an integration result: stores the new velocities and teleports the vehicle once.
+     * The move is swept against terrain first, since that reads blocks.
+     * Must run on the main thread.
      */
-    private void applyAirshipVerticalPhysics() {
-        ShipConfig config = ship.config;
-
-        if (ship.isSpacePressed) {
-            currentYVelocity = Math.min(currentYVelocity + config.liftAcceleration, config.maxVerticalSpeed);
-            if (Math.abs(currentSpeed) < config.verticalForwardNudge) {
-                currentSpeed = config.verticalForwardNudge;
-            }
-        } else if (ship.isSprintPressed) {
-            currentYVelocity = Math.max(currentYVelocity - config.descendAcceleration, -config.maxVerticalSpeed);
-            if (Math.abs(currentSpeed) < config.verticalForwardNudge) {
-                currentSpeed = config.verticalForwardNudge;
-            }
-        } else {
-            if (!ship.hasDriver) {
-                currentYVelocity = 0.0f;
-            } else {
-                currentYVelocity *= config.verticalDrag;
-            }
-        }
+    void apply(Result r) {
+        currentSpeed = r.speed;
+        currentYVelocity = r.yVelocity;
+        currentRotationVelocity = r.rotationVelocity;
 
-        if (Math.abs(currentYVelocity) < 0.01f) {
-            currentYVelocity = 0.0f;
-        }
-    }
-
-    /**
-     * Apply ship velocity to players standing on deck.
-     * Called per-collider from updateCollisionPositions().
-     */
-    public void applyDeckPhysics(CollisionBox cb, Vector3f velocity, boolean isFirstTick) {
-        if (!ship.hasPlayersNearby || isFirstTick) return;
+        if (!r.moved && !r.rotated) return;
+        if (!ship.vehicle.isValid() || ship.vehicle.isDead()) return;
 
-        for (Entity nearby : cb.entity.getNearbyEntities(1.5, 1.5, 1.5)) {
-            if (nearby instanceof Player player) {
-                if (isPlayerSeatedOnShip(player)) {
-                    continue;
-                }
-                pushPlayerOutOfShulker(player, cb.entity);
-            }
+        Location newLoc = ship.vehicle.getLocation();
+        if (r.moved && ShipInstance.SWEPT_COLLISION) {
+            ship.collision.sweepTerrain(newLoc, r);  // Clamp the move at the first block in the way
+            currentYVelocity = r.yVelocity;
         }
+        newLoc.setX(r.x);
+        newLoc.setY(r.y);
+        newLoc.setZ(r.z);
+        newLoc.setYaw(r.yaw);
+        ShipScheduling.teleport(ship.vehicle, newLoc);
     }
 
     /**
-     * Check if a player is seated on any shulker belonging to this ship.
+     * Push players on deck out of the collider under their feet.
+     * Called once per collider sync from updateCollisionPositions(), using the assignment from ship.deck.
+     * The assignment is made before the sync and never picks a collider that had not been placed yet,
+     * so colliders on their first tick are skipped here just as the old per-collider first-tick check did.
      */
-    private boolean isPlayerSeatedOnShip(Player player) {
-        Entity vehicle = player.getVehicle();
-        if (vehicle instanceof Shulker shulker) {
-            return ShipTags.extractShipId(shulker.getScoreboardTags()) != null
-                && ShipTags.extractShipId(shulker.getScoreboardTags()).equals(ship.id);
+    public void applyDeckPhysics() {
+        DeckTracker deck = ship.deck;
+        for (int i = 0; i < deck.size(); i++) {
+            pushPlayerOutOfShulker(deck.player(i), ship.colliders.shulkers[deck.collider(i)]);
         }
-        return false;
     }
 
     /**
@@ -297,7 +409,7 @@ public class ShipPhysics {
 
         Location playerLoc = player.getLocation();
         playerLoc.setY(targetY);
-        player.teleport(playerLoc);
+        ShipScheduling.teleport(player, playerLoc);
     }
 
     /**
@@ -321,7 +433,7 @@ public class ShipPhysics {
         float pitch = loc.getPitch();
 
         Location snapped = new Location(loc.getWorld(), x, y, z, snappedYaw, pitch);
-        ship.vehicle.teleport(snapped);
+        ShipScheduling.teleport(ship.vehicle, snapped);
 
         // Update collision positions to sync with new location
         ship.updateCollisionPositions();
@@ -347,40 +459,11 @@ public class ShipPhysics {
         float snappedPitch = 0.0f;
 
         // Find players standing on this ship's shulkers BEFORE moving
-        Map<Player, Shulker> playersOnDeck = new HashMap<>();
-        String shipTag = ShipTags.shipTag(ship.id);
-
-        for (Player player : loc.getWorld().getPlayers()) {
-            if (player.getLocation().distance(loc) > 32) continue;
-
-            for (Entity nearby : player.getNearbyEntities(2, 2, 2)) {
-                if (!(nearby instanceof Shulker shulker)) continue;
-                if (!shulker.getScoreboardTags().contains(shipTag)) continue;
-
-                org.bukkit.util.BoundingBox playerBox = player.getBoundingBox();
-                org.bukkit.util.BoundingBox shulkerBox = shulker.getBoundingBox();
-
-                double playerFeetY = playerBox.getMinY();
-                double shulkerTopY = shulkerBox.getMaxY();
-
-                boolean withinHorizontalBounds =
-                    playerBox.getMinX() < shulkerBox.getMaxX() &&
-                    playerBox.getMaxX() > shulkerBox.getMinX() &&
-                    playerBox.getMinZ() < shulkerBox.getMaxZ() &&
-                    playerBox.getMaxZ() > shulkerBox.getMinZ();
-
-                boolean onTop = playerFeetY >= shulkerTopY - 0.1 && playerFeetY <= shulkerTopY + 0.3;
-
-                if (withinHorizontalBounds && onTop) {
-                    playersOnDeck.put(player, shulker);
-                    break;
-                }
-            }
-        }
+        Map<Player, Shulker> playersOnDeck = ship.deck.standing(loc, Math.max(ship.collisionRadius, 0));
 
         // Set the new aligned location
         Location aligned = new Location(loc.getWorld(), x, y, z, snappedYaw, snappedPitch);
-        ship.vehicle.teleport(aligned);
+        ShipScheduling.teleport(ship.vehicle, aligned);
 
         // Update collision positions immediately
         ship.updateCollisionPositions();
@@ -391,7 +474,7 @@ public class ShipPhysics {
             Shulker shulker = entry.getValue();
             Location shulkerLoc = shulker.getLocation();
             Location playerLoc = player.getLocation();
-            player.teleport(new Location(
+            ShipScheduling.teleport(player, new Location(
                 shulkerLoc.getWorld(),
                 shulkerLoc.getX(),
                 shulker.getBoundingBox().getMaxY() + 0.1,
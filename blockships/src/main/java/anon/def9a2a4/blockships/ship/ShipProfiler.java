@@ -0,0 +1,317 @@
+package anon.def9a2a4.blockships.ship;
+
+import anon.def9a2a4.blockships.ShipEvents;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-phase timing of ship updates, used by /blockships profile.
+ *
+ * Profiling only runs during a session started by the command. While disabled (and no Flight
+ * Recorder session wants ship tick events), the tick path only checks two flags per update.
+ * Each ship keeps one latency histogram per phase for the length of the session; per ship
+ * type histograms are built by merging the ship histograms when the report is generated.
+ *
+ * Sessions also count the bytes each collider sync allocates (from the JVM's per-thread allocation
+ * counter), since that loop runs for every collider of every ship each tick and is meant to allocate nothing.
+ */
+public final class ShipProfiler {
+
+    /**
+     * Phases of a ship update, in execution order. TOTAL is the sum of the others.
+     */
+    public enum Phase {
+        STEERING("steering"),
+        COLLISION_DETECT("collision detect"),
+        PHYSICS("physics"),
+        COLLISION_RESPONSE("collision response"),
+        COLLIDER_SYNC("collider sync"),
+        DISPLAY_SYNC("display sync"),
+        TOTAL("total");
+
+        public final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    static final int PHASE_COUNT = Phase.values().length;
+
+    private static volatile boolean enabled = false;
+    private static final Map<UUID, ShipProfile> profiles = new ConcurrentHashMap<>();
+    private static long sessionStartNanos;
+
+    // Per-thread allocation counter, if the JVM provides one (HotSpot does)
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+
+    private ShipProfiler() {}
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts a new session, discarding data from any previous one.
+     */
+    public static void start() {
+        profiles.clear();
+        sessionStartNanos = System.nanoTime();
+        enabled = true;
+    }
+
+    /**
+     * Stops the current session and returns the collected per-ship profiles.
+     */
+    public static List<ShipProfile> stop() {
+        enabled = false;
+        return new ArrayList<>(profiles.values());
+    }
+
+    public static double getSessionSeconds() {
+        return (System.nanoTime() - sessionStartNanos) / 1_000_000_000.0;
+    }
+
+    /**
+     * Returns true if update phases should be timed, either for a profiling session
+     * or for a Flight Recorder ship tick event.
+     */
+    static boolean isTiming() {
+        return enabled || ShipEvents.isTickEnabled();
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads;
+        }
+        return null;
+    }
+
+    /**
+     * Bytes allocated so far by the calling thread, or -1 if the JVM doesn't count them.
+     */
+    static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * Records the bytes one collider sync allocated. Only call while a session is running.
+     */
+    static void countColliderSyncAllocation(ShipInstance ship, long bytes) {
+        ShipProfile profile = profileFor(ship);
+        profile.colliderSyncBytes += bytes;
+        profile.colliderSyncs++;
+    }
+
+    /**
+     * Adds the time since start to a phase of the ship's current update.
+     * @return The current time, to be used as the start of the next phase
+     */
+    static long lap(ShipInstance ship, Phase phase, long start) {
+        long now = System.nanoTime();
+        ship.phaseNanos[phase.ordinal()] += now - start;
+        return now;
+    }
+
+    /**
+     * Closes the ship's current update: commits its tick event if one was started,
+     * records each phase into the ship's histograms during a session, then resets the phase times.
+     */
+    static void endUpdate(ShipInstance ship, int elapsedTicks) {
+        long[] phaseNanos = ship.phaseNanos;
+        ShipEvents.ShipTickEvent event = ship.tickEvent;
+        if (event != null) {
+            ship.tickEvent = null;
+            event.end();
+            if (event.shouldCommit()) {
+                event.setShip(ship);
+                event.elapsedTicks = elapsedTicks;
+                event.steering = phaseNanos[Phase.STEERING.ordinal()];
+                event.collisionDetect = phaseNanos[Phase.COLLISION_DETECT.ordinal()];
+                event.physics = phaseNanos[Phase.PHYSICS.ordinal()];
+                event.collisionResponse = phaseNanos[Phase.COLLISION_RESPONSE.ordinal()];
+                event.colliderSync = phaseNanos[Phase.COLLIDER_SYNC.ordinal()];
+                event.displaySync = phaseNanos[Phase.DISPLAY_SYNC.ordinal()];
+                event.commit();
+            }
+        }
+
+        if (enabled) {
+            ShipProfile profile = profileFor(ship);
+            long total = 0;
+            for (int i = 0; i < PHASE_COUNT - 1; i++) {
+                profile.histograms[i].record(phaseNanos[i]);
+                total += phaseNanos[i];
+            }
+            profile.histograms[Phase.TOTAL.ordinal()].record(total);
+        }
+        Arrays.fill(phaseNanos, 0L);
+    }
+
+    /**
+     * Records how many display transformation updates a moving update sent and how many it
+     * skipped because the display was already up to date. Only call while a session is running.
+     */
+    static void countDisplayUpdates(ShipInstance ship, int sent, int skipped) {
+        ShipProfile profile = profileFor(ship);
+        profile.displayUpdatesSent += sent;
+        profile.displayUpdatesSkipped += skipped;
+    }
+
+    private static ShipProfile profileFor(ShipInstance ship) {
+        return profiles.computeIfAbsent(ship.id, id -> new ShipProfile(ship));
+    }
+
+    /**
+     * Returns the profiles sorted by p95 total update time, slowest first.
+     */
+    public static List<ShipProfile> sortBySlowest(List<ShipProfile> results) {
+        List<ShipProfile> sorted = new ArrayList<>(results);
+        sorted.sort(Comparator.comparingLong((ShipProfile p) -> p.get(Phase.TOTAL).percentile(0.95)).reversed());
+        return sorted;
+    }
+
+    /**
+     * Merges ship profiles into one histogram set per ship type.
+     */
+    public static Map<String, LatencyHistogram[]> groupByType(List<ShipProfile> results) {
+        Map<String, LatencyHistogram[]> byType = new LinkedHashMap<>();
+        for (ShipProfile profile : results) {
+            LatencyHistogram[] merged = byType.computeIfAbsent(profile.shipType, t -> newHistogramSet());
+            for (int i = 0; i < PHASE_COUNT; i++) {
+                merged[i].merge(profile.histograms[i]);
+            }
+        }
+        return byType;
+    }
+
+    private static LatencyHistogram[] newHistogramSet() {
+        LatencyHistogram[] set = new LatencyHistogram[PHASE_COUNT];
+        for (int i = 0; i < PHASE_COUNT; i++) {
+            set[i] = new LatencyHistogram();
+        }
+        return set;
+    }
+
+    /**
+     * Timings for a single ship. Ship details are captured when profiling of the ship begins.
+     */
+    public static final class ShipProfile {
+        public final UUID shipId;
+        public final String shipType;
+        public final int blockCount;
+        public final int colliderCount;
+        private final LatencyHistogram[] histograms = newHistogramSet();
+        private long displayUpdatesSent;
+        private long displayUpdatesSkipped;
+        private long colliderSyncBytes;
+        private long colliderSyncs;
+
+        private ShipProfile(ShipInstance ship) {
+            this.shipId = ship.id;
+            this.shipType = ship.shipType;
+            this.blockCount = ship.model.parts.size();
+            this.colliderCount = ship.colliders.size();
+        }
+
+        public LatencyHistogram get(Phase phase) {
+            return histograms[phase.ordinal()];
+        }
+
+        public long getDisplayUpdatesSent() {
+            return displayUpdatesSent;
+        }
+
+        public long getDisplayUpdatesSkipped() {
+            return displayUpdatesSkipped;
+        }
+
+        public long getColliderSyncBytes() {
+            return colliderSyncBytes;
+        }
+
+        /**
+         * Collider syncs measured for allocation (0 if the JVM doesn't count allocations).
+         */
+        public long getColliderSyncs() {
+            return colliderSyncs;
+        }
+    }
+
+    /**
+     * Log-linear histogram of nanosecond durations: 8 sub-buckets per power of two,
+     * which keeps percentiles within about 12% of the true value.
+     */
+    public static final class LatencyHistogram {
+        private static final int SUB_BUCKET_BITS = 3;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+        private final long[] counts = new long[64 * SUB_BUCKETS];
+        private long count;
+        private long sum;
+
+        void record(long nanos) {
+            if (nanos < 0) nanos = 0;
+            counts[bucketFor(nanos)]++;
+            count++;
+            sum += nanos;
+        }
+
+        void merge(LatencyHistogram other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            count += other.count;
+            sum += other.sum;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMean() {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        /**
+         * @param fraction Percentile as a fraction (0.95 = p95)
+         * @return Upper bound of the bucket containing the percentile, in nanoseconds
+         */
+        public long percentile(double fraction) {
+            if (count == 0) return 0;
+            long target = (long) Math.ceil(fraction * count);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return bucketUpperBound(i);
+                }
+            }
+            return bucketUpperBound(counts.length - 1);
+        }
+
+        private static int bucketFor(long value) {
+            if (value < SUB_BUCKETS) return (int) value;
+            int msb = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (msb - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (msb - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        private static long bucketUpperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) return bucket;
+            int msb = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            int sub = bucket % SUB_BUCKETS;
+            long width = 1L << (msb - SUB_BUCKET_BITS);
+            return (1L << msb) + (sub + 1) * width - 1;
+        }
+    }
+}
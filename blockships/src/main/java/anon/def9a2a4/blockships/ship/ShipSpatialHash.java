@@ -0,0 +1,268 @@
+package anon.def9a2a4.blockships.ship;
+
+import anon.def9a2a4.blockships.CellTable;
+import org.bukkit.World;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Uniform grid of ship world bounds, used as the broadphase for ship-to-ship collision and behind the
+ * public {@link ShipSpatialQuery}. A second grid of the same kind holds the block ranges each ship watches
+ * for changes (its terrain window, plus its hull while asleep), so a block change finds the few ships it
+ * concerns instead of visiting every ship.
+ *
+ * Each ship publishes its bounds while it ticks (see {@link ShipCollision#getPublishedBounds}); the grid is
+ * rebuilt from those once per server tick, so building it never touches an entity and works from Folia's
+ * global region as well as the main thread. A rebuilt grid is immutable and swapped in whole, so region
+ * threads can query it while the next one is being built. Cost is O(ships) to build plus O(cells touched)
+ * per query, independent of how many other entities are around.
+ */
+final class ShipSpatialHash {
+    private static volatile ShipSpatialHash current = new ShipSpatialHash(new Bounds[0], 0);
+
+    // Watched block ranges; rebuilt when a ship's range changes, which is rarer than once per tick
+    private static volatile ShipSpatialHash watched = new ShipSpatialHash(new Bounds[0], 0);
+    private static volatile Collection<ShipInstance> watchedShips = List.of();
+    private static volatile boolean watchedStale;
+
+    /**
+     * Receives the ships whose watched range holds a changed block. Takes the block's coordinates
+     * as arguments so callers can pass a non-capturing method reference.
+     */
+    interface BlockVisitor {
+        void visit(ShipInstance ship, World world, int x, int y, int z);
+    }
+
+    /**
+     * A ship's world-space bounds as of its last update. Immutable, so it can be read from any thread.
+     */
+    static final class Bounds {
+        final ShipInstance ship;
+        final World world;
+        final double minX, minY, minZ, maxX, maxY, maxZ;
+
+        Bounds(ShipInstance ship, World world, double minX, double minY, double minZ,
+               double maxX, double maxY, double maxZ) {
+            this.ship = ship;
+            this.world = world;
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+        }
+
+        boolean equals(World world, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+            return this.world == world
+                && this.minX == minX && this.minY == minY && this.minZ == minZ
+                && this.maxX == maxX && this.maxY == maxY && this.maxZ == maxZ;
+        }
+
+        boolean overlaps(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+            return minX <= this.maxX && maxX >= this.minX
+                && minY <= this.maxY && maxY >= this.minY
+                && minZ <= this.maxZ && maxZ >= this.minZ;
+        }
+
+        /**
+         * Squared distance from a point to the box (0 inside it).
+         */
+        double distanceSq(double x, double y, double z) {
+            double dx = Math.max(0.0, Math.max(minX - x, x - maxX));
+            double dy = Math.max(0.0, Math.max(minY - y, y - maxY));
+            double dz = Math.max(0.0, Math.max(minZ - z, z - maxZ));
+            return dx * dx + dy * dy + dz * dz;
+        }
+    }
+
+    private final Bounds[] bounds;
+    private final int count;
+
+    // Cell (16 blocks on X and Z) -> first entry, entries chained through entryNext
+    private final CellTable cells;
+    private int[] entryShip = new int[16];
+    private int[] entryNext = new int[16];
+    private int entryCount;
+
+    private ShipSpatialHash(Bounds[] bounds, int count) {
+        this.bounds = bounds;
+        this.count = count;
+
+        int cellCount = 0;
+        for (int i = 0; i < count; i++) {
+            Bounds b = bounds[i];
+            cellCount += (cell(b.maxX) - cell(b.minX) + 1) * (cell(b.maxZ) - cell(b.minZ) + 1);
+        }
+        this.cells = new CellTable(cellCount);
+
+        for (int i = 0; i < count; i++) {
+            Bounds b = bounds[i];
+            for (int cx = cell(b.minX), maxX = cell(b.maxX); cx <= maxX; cx++) {
+                for (int cz = cell(b.minZ), maxZ = cell(b.maxZ); cz <= maxZ; cz++) {
+                    insert(cx, cz, i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the grid from the ships' published bounds. Ships that haven't published any are left out.
+     * The watched grid is rebuilt too if ships registered or unregistered since its last build.
+     */
+    static void rebuild(Collection<ShipInstance> registered) {
+        Bounds[] bounds = new Bounds[registered.size()];
+        int count = 0;
+        for (ShipInstance ship : registered) {
+            if (count == bounds.length) break;  // Registered concurrently; picked up next tick
+            Bounds b = ship.collision.getPublishedBounds();
+            if (b != null) {
+                bounds[count++] = b;
+            }
+        }
+        current = new ShipSpatialHash(bounds, count);
+
+        // Registered ships changed (the registry hands out a new snapshot), or a watched range moved
+        if (registered != watchedShips || watchedStale) {
+            watchedShips = registered;
+            rebuildWatched();
+        }
+    }
+
+    /**
+     * Marks the watched grid out of date after a ship's watched range moved. The next lookup rebuilds it
+     * first, so a block change right after the move is not missed.
+     */
+    static void markWatchedStale() {
+        watchedStale = true;
+    }
+
+    /**
+     * Calls the visitor for every ship whose watched range holds the block.
+     */
+    static void visitWatching(World world, int x, int y, int z, BlockVisitor visitor) {
+        if (watchedStale) {
+            rebuildWatched();
+        }
+        watched.visitAt(world, x, y, z, visitor);
+    }
+
+    private static void rebuildWatched() {
+        watchedStale = false;  // Cleared first, so a range moving during the rebuild marks it again
+        Collection<ShipInstance> registered = watchedShips;
+        Bounds[] bounds = new Bounds[registered.size()];
+        int count = 0;
+        for (ShipInstance ship : registered) {
+            if (count == bounds.length) break;
+            Bounds b = ship.collision.getWatchedBounds();
+            if (b != null) {
+                bounds[count++] = b;
+            }
+        }
+        watched = new ShipSpatialHash(bounds, count);
+    }
+
+    /**
+     * Finds the other ships whose published bounds overlap the box, in the same world.
+     *
+     * @param out Receives the ships' bounds; a full buffer truncates the result
+     * @return Number of entries written
+     */
+    static int query(ShipInstance self, World world, double minX, double minY, double minZ,
+                     double maxX, double maxY, double maxZ, Bounds[] out) {
+        return current.find(self, world, minX, minY, minZ, maxX, maxY, maxZ, out);
+    }
+
+    /**
+     * Adds every ship whose published bounds overlap the box, in the given world, to the list.
+     * Unlike {@link #query} there is no size limit, so it suits callers that can afford the allocation.
+     */
+    static void collect(World world, double minX, double minY, double minZ,
+                        double maxX, double maxY, double maxZ, List<Bounds> out) {
+        current.collectInto(world, minX, minY, minZ, maxX, maxY, maxZ, out);
+    }
+
+    private void collectInto(World world, double minX, double minY, double minZ,
+                             double maxX, double maxY, double maxZ, List<Bounds> out) {
+        int minCx = cell(minX), maxCx = cell(maxX);
+        int minCz = cell(minZ), maxCz = cell(maxZ);
+
+        if (CellTable.touchesMoreCellsThan(minCx, minCz, maxCx, maxCz, count)) {
+            for (int i = 0; i < count; i++) {
+                Bounds b = bounds[i];
+                if (b.world == world && b.overlaps(minX, minY, minZ, maxX, maxY, maxZ)) {
+                    out.add(b);
+                }
+            }
+            return;
+        }
+
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cz = minCz; cz <= maxCz; cz++) {
+                for (int e = cells.get(cx, cz); e >= 0; e = entryNext[e]) {
+                    Bounds b = bounds[entryShip[e]];
+                    if (b.world != world || !b.overlaps(minX, minY, minZ, maxX, maxY, maxZ)) continue;
+                    // A ship spanning several cells is reported only from the first cell it shares with the box
+                    if (cx != Math.max(minCx, cell(b.minX)) || cz != Math.max(minCz, cell(b.minZ))) continue;
+                    out.add(b);
+                }
+            }
+        }
+    }
+
+    private void visitAt(World world, int x, int y, int z, BlockVisitor visitor) {
+        double px = x + 0.5, py = y + 0.5, pz = z + 0.5;
+        for (int e = cells.get(cell(px), cell(pz)); e >= 0; e = entryNext[e]) {
+            Bounds b = bounds[entryShip[e]];
+            if (b.world == world && b.overlaps(px, py, pz, px, py, pz)) {
+                visitor.visit(b.ship, world, x, y, z);
+            }
+        }
+    }
+
+    private int find(ShipInstance self, World world, double minX, double minY, double minZ,
+                     double maxX, double maxY, double maxZ, Bounds[] out) {
+        int found = 0;
+        for (int cx = cell(minX), cellMaxX = cell(maxX); cx <= cellMaxX; cx++) {
+            for (int cz = cell(minZ), cellMaxZ = cell(maxZ); cz <= cellMaxZ; cz++) {
+                for (int e = cells.get(cx, cz); e >= 0; e = entryNext[e]) {
+                    Bounds b = bounds[entryShip[e]];
+                    if (b.ship == self || b.world != world) continue;
+                    if (minX > b.maxX || maxX < b.minX || minY > b.maxY || maxY < b.minY
+                            || minZ > b.maxZ || maxZ < b.minZ) {
+                        continue;
+                    }
+                    if (contains(out, found, b)) continue;  // Spans several cells
+                    if (found == out.length) return found;
+                    out[found++] = b;
+                }
+            }
+        }
+        return found;
+    }
+
+    private static boolean contains(Bounds[] found, int count, Bounds b) {
+        for (int i = 0; i < count; i++) {
+            if (found[i] == b) return true;
+        }
+        return false;
+    }
+
+    private static int cell(double coordinate) {
+        return CellTable.cell(coordinate);
+    }
+
+    private void insert(int cx, int cz, int index) {
+        if (entryCount == entryShip.length) {
+            entryShip = Arrays.copyOf(entryShip, entryCount * 2);
+            entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+        }
+        long key = CellTable.key(cx, cz);
+        int e = entryCount++;
+        entryShip[e] = index;
+        entryNext[e] = cells.get(key);
+        cells.put(key, e);
+    }
+}
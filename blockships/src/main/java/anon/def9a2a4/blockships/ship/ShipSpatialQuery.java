@@ -0,0 +1,110 @@
+package anon.def9a2a4.blockships.ship;
+
+import anon.def9a2a4.blockships.ShipRegistry;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.util.BoundingBox;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds loaded ships by position: ships intersecting a box or a sphere, and the ship nearest a point.
+ * Meant for this plugin's own listeners and commands as well as for other plugins.
+ *
+ * Answers come from the ship bounds grid that is rebuilt once per server tick, so a query looks at the
+ * few grid cells it covers instead of every ship or the entities around it. A ship's bounds are the
+ * axis-aligned world box around its colliders as of its last tick (a sleeping ship keeps its last one).
+ * Ships that haven't ticked since loading, or were unregistered since the rebuild, are not reported.
+ *
+ * The methods can be called from any thread. The ships they return are live objects: on Folia, only
+ * touch a ship's entities from the region that owns its vehicle
+ * (see {@link anon.def9a2a4.blockships.ShipScheduling}).
+ */
+public final class ShipSpatialQuery {
+
+    private ShipSpatialQuery() {} // Prevent instantiation
+
+    /**
+     * Ships in the world whose bounds intersect the box, in no particular order.
+     */
+    public static List<ShipInstance> shipsIn(World world, BoundingBox box) {
+        return shipsIn(world, box.getMinX(), box.getMinY(), box.getMinZ(), box.getMaxX(), box.getMaxY(), box.getMaxZ());
+    }
+
+    /**
+     * Ships in the world whose bounds intersect the box given by its corners, in no particular order.
+     */
+    public static List<ShipInstance> shipsIn(World world, double minX, double minY, double minZ,
+                                             double maxX, double maxY, double maxZ) {
+        List<ShipSpatialHash.Bounds> found = new ArrayList<>();
+        if (world != null) {
+            ShipSpatialHash.collect(world, minX, minY, minZ, maxX, maxY, maxZ, found);
+        }
+        List<ShipInstance> ships = new ArrayList<>(found.size());
+        for (ShipSpatialHash.Bounds b : found) {
+            if (isRegistered(b.ship)) {
+                ships.add(b.ship);
+            }
+        }
+        return ships;
+    }
+
+    /**
+     * Ships whose bounds come within the radius of the point (intersect the sphere), in no particular order.
+     */
+    public static List<ShipInstance> shipsWithin(Location center, double radius) {
+        List<ShipInstance> ships = new ArrayList<>();
+        World world = center.getWorld();
+        if (world == null || radius < 0) return ships;
+
+        double x = center.getX(), y = center.getY(), z = center.getZ();
+        List<ShipSpatialHash.Bounds> found = new ArrayList<>();
+        ShipSpatialHash.collect(world, x - radius, y - radius, z - radius, x + radius, y + radius, z + radius, found);
+        double radiusSq = radius * radius;
+        for (ShipSpatialHash.Bounds b : found) {
+            if (b.distanceSq(x, y, z) <= radiusSq && isRegistered(b.ship)) {
+                ships.add(b.ship);
+            }
+        }
+        return ships;
+    }
+
+    /**
+     * The ship whose bounds are closest to the point (a ship containing it is at distance 0),
+     * looking no further than maxDistance.
+     *
+     * @return The ship, or null if none is that close
+     */
+    public static ShipInstance nearest(Location point, double maxDistance) {
+        World world = point.getWorld();
+        if (world == null || maxDistance < 0) return null;
+
+        double x = point.getX(), y = point.getY(), z = point.getZ();
+        List<ShipSpatialHash.Bounds> found = new ArrayList<>();
+        ShipSpatialHash.collect(world, x - maxDistance, y - maxDistance, z - maxDistance,
+            x + maxDistance, y + maxDistance, z + maxDistance, found);
+        ShipInstance nearest = null;
+        double nearestSq = maxDistance * maxDistance;
+        for (ShipSpatialHash.Bounds b : found) {
+            double d = b.distanceSq(x, y, z);
+            if (d <= nearestSq && isRegistered(b.ship)) {
+                nearest = b.ship;
+                nearestSq = d;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * The ship's world bounds as of its last tick, or null if it hasn't published any yet.
+     */
+    public static BoundingBox getBounds(ShipInstance ship) {
+        ShipSpatialHash.Bounds b = ship.collision.getPublishedBounds();
+        return b != null ? new BoundingBox(b.minX, b.minY, b.minZ, b.maxX, b.maxY, b.maxZ) : null;
+    }
+
+    private static boolean isRegistered(ShipInstance ship) {
+        return ShipRegistry.byId(ship.id) == ship;
+    }
+}
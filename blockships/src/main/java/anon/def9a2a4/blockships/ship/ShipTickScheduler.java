@@ -0,0 +1,225 @@
+package anon.def9a2a4.blockships.ship;
+
+import anon.def9a2a4.blockships.ShipRegistry;
+import anon.def9a2a4.blockships.ShipScheduling;
+import org.bukkit.plugin.java.JavaPlugin;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Drives every registered ship from a single repeating task.
+ *
+ * Ships are walked in registration order once per server tick. When the configured
+ * per-tick budget runs out, the remaining ships are deferred and the next tick resumes
+ * from the first ship that was skipped, so every ship gets its turn round-robin.
+ * Deferred ships integrate the missed ticks on their next update.
+ *
+ * On Folia there is no main thread to walk the registry from. Instead a light global task
+ * attaches a repeating task to each ship's vehicle via its entity scheduler, so every ship
+ * ticks on the region that currently owns it and is handed over automatically when it
+ * sails into another region. The global budget doesn't apply in that mode; regions already
+ * tick in parallel.
+ *
+ * Either way, the ship-to-ship collision grid ({@link ShipSpatialHash}) and the player position
+ * grid ({@link PlayerGrid}) are rebuilt once per tick before ships update.
+ */
+public class ShipTickScheduler {
+    private final JavaPlugin plugin;
+    private ShipScheduling.Task task;
+
+    // Folia: per-ship tasks running on the vehicle's entity scheduler
+    private final Map<UUID, RegionTick> regionTicks = new ConcurrentHashMap<>();
+
+    // Budget in nanoseconds (0 or less = unlimited)
+    private long tickBudgetNanos;
+
+    // Where the next tick resumes after ships were deferred: the first ship skipped, or if that one has
+    // unregistered since, the ship after the last one ticked. Kept by identity rather than index, since
+    // positions in the registry shift whenever ships register or unregister. Null = start from the top.
+    private ShipInstance resumeShip;
+    private ShipInstance lastTickedShip;
+
+    // Number of server ticks this scheduler has run (ships use it to measure elapsed time)
+    private long serverTick = 0;
+
+    // Stats from the most recent server tick
+    private int lastTickedCount = 0;
+    private int lastDeferredCount = 0;
+    private long lastTickNanos = 0;
+
+    /**
+     * Folia: a ship's own repeating task and tick counter. Only touched from the owning region.
+     */
+    private static final class RegionTick {
+        final ShipInstance ship;
+        ShipScheduling.Task task;
+        long ticks = 0;
+
+        RegionTick(ShipInstance ship) {
+            this.ship = ship;
+        }
+    }
+
+    public ShipTickScheduler(JavaPlugin plugin) {
+        this.plugin = plugin;
+        loadConfig();
+    }
+
+    /**
+     * Loads the tick budget from config. Safe to call again on reload.
+     */
+    public void loadConfig() {
+        double budgetMs = plugin.getConfig().getDouble("physics.tick-budget-ms", 10.0);
+        this.tickBudgetNanos = (long) (budgetMs * 1_000_000L);
+    }
+
+    public void start() {
+        if (task != null) return;
+        if (ShipScheduling.isFolia()) {
+            task = ShipScheduling.runTimer(plugin, 1L, 1L, this::attachRegionTicks);
+        } else {
+            task = ShipScheduling.runTimer(plugin, 1L, 1L, this::tickAll);
+        }
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        for (RegionTick regionTick : regionTicks.values()) {
+            if (regionTick.task != null) regionTick.task.cancel();
+        }
+        regionTicks.clear();
+        PlayerGrid.stopPublishing();
+        resumeShip = null;
+        lastTickedShip = null;
+    }
+
+    /**
+     * Folia: gives every registered ship without a task its own entity-scheduled tick.
+     * Runs on the global region thread, which may schedule on any entity but not touch it.
+     */
+    private void attachRegionTicks() {
+        Collection<ShipInstance> ships = ShipRegistry.getAllShips();
+        // Ship-to-ship broadphase from the bounds ships published on their last region tick
+        ShipSpatialHash.rebuild(ships);
+        PlayerGrid.rebuild(plugin);
+        for (ShipInstance ship : ships) {
+            if (regionTicks.containsKey(ship.id)) continue;
+
+            RegionTick regionTick = new RegionTick(ship);
+            regionTicks.put(ship.id, regionTick);
+            // Retired when the vehicle is removed or unloaded; the ship is re-attached once it registers again
+            regionTick.task = ShipScheduling.runTimer(plugin, ship.vehicle, 1L, 1L,
+                () -> tickOnRegion(regionTick),
+                () -> regionTicks.remove(ship.id, regionTick));
+            if (regionTick.task == null) {
+                regionTicks.remove(ship.id, regionTick);
+            }
+        }
+    }
+
+    /**
+     * Folia: one update for a single ship on the region thread that owns its vehicle.
+     */
+    private void tickOnRegion(RegionTick regionTick) {
+        ShipInstance ship = regionTick.ship;
+        if (ShipRegistry.byId(ship.id) != ship) {
+            // Unregistered (destroyed or suspended) - stop this task
+            if (regionTick.task != null) regionTick.task.cancel();
+            regionTicks.remove(ship.id, regionTick);
+            return;
+        }
+
+        regionTick.ticks++;
+        try {
+            int elapsedTicks = ship.prepareTick(regionTick.ticks);
+            if (elapsedTicks > 0) {
+                ship.tick(elapsedTicks);
+            }
+        } catch (Exception e) {
+            plugin.getLogger().severe("Error ticking ship " + ship.id + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private void tickAll() {
+        serverTick++;
+        List<ShipInstance> ships = ShipRegistry.getAllShips();  // Immutable snapshot
+        int count = ships.size();
+        if (count == 0) {
+            resumeShip = null;
+            lastTickedShip = null;
+            lastTickedCount = 0;
+            lastDeferredCount = 0;
+            lastTickNanos = 0;
+            return;
+        }
+
+        // Ship-to-ship broadphase from the bounds each ship published on its last update
+        ShipSpatialHash.rebuild(ships);
+        // Player positions for proximity, LOD and deck queries, shared by every ship this tick
+        PlayerGrid.rebuild(plugin);
+
+        long start = System.nanoTime();
+        int ticked = 0;
+        int next = resumeIndex(ships);
+
+        while (ticked < count) {
+            ShipInstance ship = ships.get(next);
+            lastTickedShip = ship;
+            try {
+                int elapsedTicks = ship.prepareTick(serverTick);
+                if (elapsedTicks > 0) {
+                    ship.tick(elapsedTicks);
+                }
+            } catch (Exception e) {
+                plugin.getLogger().severe("Error ticking ship " + ship.id + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+            ticked++;
+            next = (next + 1) % count;
+
+            // Checked after each full update (collider sync included), so at least one ship always runs per tick
+            if (tickBudgetNanos > 0 && System.nanoTime() - start >= tickBudgetNanos) {
+                break;
+            }
+        }
+
+        // Resume from the first deferred ship next tick
+        resumeShip = ticked < count ? ships.get(next) : null;
+
+        lastTickedCount = ticked;
+        lastDeferredCount = count - ticked;
+        lastTickNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Position in the current registry snapshot to resume the round-robin from.
+     */
+    private int resumeIndex(List<ShipInstance> ships) {
+        if (resumeShip == null) return 0;
+        int index = ships.indexOf(resumeShip);
+        if (index >= 0) return index;
+        // The deferred ship is gone; carry on after the last ship that did tick
+        index = ships.indexOf(lastTickedShip);
+        return index >= 0 ? (index + 1) % ships.size() : 0;
+    }
+
+    public int getLastTickedCount() {
+        return lastTickedCount;
+    }
+
+    public int getLastDeferredCount() {
+        return lastDeferredCount;
+    }
+
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+}
@@ -0,0 +1,220 @@
+package anon.def9a2a4.blockships.ship;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.Arrays;
+
+/**
+ * Cached block solidity around a ship, used by terrain collision.
+ *
+ * Covers a cube of blocks around the ship (its collision reach plus padding) as two bitsets:
+ * which cells have been read and which of those are solid. Cells are read from the world the first
+ * time collision asks for them, so each block is read once while it stays in the window instead of
+ * once per overlapping collider per tick. Storage is indexed by world coordinate modulo the window
+ * size, so when the ship moves out of the window it slides: only the slabs that enter are forgotten.
+ *
+ * Block changes inside the window clear the affected cell (see {@link ShipCollision#invalidateTerrain}).
+ * Must only be used from the thread that owns the ship.
+ */
+final class TerrainWindow {
+    private final int size;         // Edge length in blocks
+    private final float reach;      // Collision reach the window was sized for
+    private final long[] known;     // Cell has been read since it entered the window
+    private final long[] solid;     // Cell blocks a collider (valid only where known)
+
+    private volatile World world;
+    // Current window origin (inclusive min corner, world block coordinates)
+    private volatile int minX, minY, minZ;
+    private volatile boolean placed;
+    private int version;            // Bumped whenever a cached cell is invalidated or the window slides
+
+    TerrainWindow(float reach, int padding) {
+        this.reach = reach;
+        this.size = (int) Math.ceil(reach) * 2 + 2 + padding * 2;
+        int words = (size * size * size + 63) >>> 6;
+        this.known = new long[words];
+        this.solid = new long[words];
+    }
+
+    float reach() {
+        return reach;
+    }
+
+    /**
+     * Makes sure the window covers the given block range, sliding it if needed.
+     * A range larger than the window is only partly covered; blocks outside it are read directly.
+     *
+     * @return Whether the window moved
+     */
+    boolean cover(World world, int fromX, int fromY, int fromZ, int toX, int toY, int toZ) {
+        if (placed && world == this.world
+                && fromX >= minX && toX < minX + size
+                && fromY >= minY && toY < minY + size
+                && fromZ >= minZ && toZ < minZ + size) {
+            return false;
+        }
+
+        // Center the range so the ship can travel about the padding before the next slide
+        int newMinX = (fromX + toX - size + 1) >> 1;
+        int newMinY = (fromY + toY - size + 1) >> 1;
+        int newMinZ = (fromZ + toZ - size + 1) >> 1;
+
+        if (!placed || world != this.world
+                || Math.abs(newMinX - minX) >= size
+                || Math.abs(newMinY - minY) >= size
+                || Math.abs(newMinZ - minZ) >= size) {
+            Arrays.fill(known, 0L);
+        } else {
+            // Forget the slabs entering the window; they share storage with the slabs leaving it
+            forgetSlabX(minX, newMinX);
+            forgetSlabY(minY, newMinY);
+            forgetSlabZ(minZ, newMinZ);
+        }
+
+        version++;
+        this.world = world;
+        this.minX = newMinX;
+        this.minY = newMinY;
+        this.minZ = newMinZ;
+        this.placed = true;
+        return true;
+    }
+
+    boolean isPlaced() {
+        return placed;
+    }
+
+    World world() {
+        return world;
+    }
+
+    // Inclusive min corner of the window; the window spans size() blocks from it on each axis
+    int minX() {
+        return minX;
+    }
+
+    int minY() {
+        return minY;
+    }
+
+    int minZ() {
+        return minZ;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Whether the block blocks a collider. Reads it from the world on first use.
+     */
+    boolean isSolid(int x, int y, int z) {
+        if (!contains(x, y, z)) {
+            return isSolid(world.getType(x, y, z));
+        }
+        int index = index(x, y, z);
+        int word = index >>> 6;
+        long bit = 1L << index;
+        if ((known[word] & bit) == 0) {
+            known[word] |= bit;
+            if (isSolid(world.getType(x, y, z))) {
+                solid[word] |= bit;
+            } else {
+                solid[word] &= ~bit;
+            }
+        }
+        return (solid[word] & bit) != 0;
+    }
+
+    /**
+     * Whether the block is inside the window. Safe to call from any thread as a pre-check.
+     */
+    boolean contains(World world, int x, int y, int z) {
+        return placed && world.equals(this.world) && contains(x, y, z);
+    }
+
+    /**
+     * Forgets a cell so it is read again on next use.
+     */
+    void invalidate(World world, int x, int y, int z) {
+        if (!contains(world, x, y, z)) return;
+        int index = index(x, y, z);
+        known[index >>> 6] &= ~(1L << index);
+        version++;
+    }
+
+    /**
+     * Changes whenever a cell may have changed or the window moved. A result derived from the
+     * window's cells stays valid while the version is unchanged and the cells are inside the window.
+     */
+    int version() {
+        return version;
+    }
+
+    /**
+     * Whether the whole block range is inside the window.
+     */
+    boolean covers(int fromX, int fromY, int fromZ, int toX, int toY, int toZ) {
+        return placed && contains(fromX, fromY, fromZ) && contains(toX, toY, toZ);
+    }
+
+    private boolean contains(int x, int y, int z) {
+        return x >= minX && x < minX + size
+            && y >= minY && y < minY + size
+            && z >= minZ && z < minZ + size;
+    }
+
+    private int index(int x, int y, int z) {
+        return (Math.floorMod(y, size) * size + Math.floorMod(z, size)) * size + Math.floorMod(x, size);
+    }
+
+    private static boolean isSolid(Material type) {
+        return type.isSolid() && type != Material.WATER;
+    }
+
+    // Coordinates entering the window when its min corner moves from oldMin to newMin
+    // (the same storage slots as those leaving it)
+    private void forgetSlabX(int oldMin, int newMin) {
+        int from = newMin > oldMin ? oldMin + size : newMin;
+        int to = newMin > oldMin ? newMin + size : oldMin;
+        for (int x = from; x < to; x++) {
+            int sx = Math.floorMod(x, size);
+            for (int sy = 0; sy < size; sy++) {
+                for (int sz = 0; sz < size; sz++) {
+                    clear((sy * size + sz) * size + sx);
+                }
+            }
+        }
+    }
+
+    private void forgetSlabY(int oldMin, int newMin) {
+        int from = newMin > oldMin ? oldMin + size : newMin;
+        int to = newMin > oldMin ? newMin + size : oldMin;
+        for (int y = from; y < to; y++) {
+            int sy = Math.floorMod(y, size);
+            for (int sz = 0; sz < size; sz++) {
+                for (int sx = 0; sx < size; sx++) {
+                    clear((sy * size + sz) * size + sx);
+                }
+            }
+        }
+    }
+
+    private void forgetSlabZ(int oldMin, int newMin) {
+        int from = newMin > oldMin ? oldMin + size : newMin;
+        int to = newMin > oldMin ? newMin + size : oldMin;
+        for (int z = from; z < to; z++) {
+            int sz = Math.floorMod(z, size);
+            for (int sy = 0; sy < size; sy++) {
+                for (int sx = 0; sx < size; sx++) {
+                    clear((sy * size + sz) * size + sx);
+                }
+            }
+        }
+    }
+
+    private void clear(int index) {
+        known[index >>> 6] &= ~(1L << index);
+    }
+}